@@ -0,0 +1,241 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Anytime Repairing A* (ARA*) for the Manuscript Sorting Problem.
+ * Starts as weighted A* with f = g + w * h2, which behaves like Greedy Best-First Search for large w and
+ * returns a path quickly. The weight is then lowered step by step towards 1 (plain A*). Each pass reuses the
+ * g-values and parents of the previous one: states improved after they were expanded are kept in an
+ * INCONS list and re-queued at the start of the next pass, instead of searching from scratch.
+ * Each published path comes with a suboptimality bound, and the best one found before the deadline is returned.
+ */
+public class ARAStarSearch {
+
+    private static final double INITIAL_WEIGHT = 3.0;
+    private static final double WEIGHT_STEP = 0.5;
+    private static final long DEFAULT_DEADLINE_MS = 1000;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /**
+     * Frontier entry; entries whose pathCost no longer matches the best known g are stale and skipped.
+     */
+    static final class SearchNode implements Comparable<SearchNode> {
+        final long state;
+        final int pathCost;
+        final double priority;
+
+        SearchNode(final long state, final int pathCost, final double priority) {
+            this.state = state;
+            this.pathCost = pathCost;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(final SearchNode other) {
+            return Double.compare(this.priority, other.priority);
+        }
+    }
+
+    /**
+     * Search state shared by all passes of one ARA* run.
+     */
+    private static final class Search {
+        final long goal;
+        final int[][] goalPositions;
+        final long deadline;
+        final SearchBudget budget;
+        final Map<Long, Integer> bestCostTo = new HashMap<>();
+        final Map<Long, Long> parentOf = new HashMap<>();
+        final Set<Long> openStates = new HashSet<>();
+        final Set<Long> closed = new HashSet<>();
+        final Set<Long> inconsistent = new HashSet<>();
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
+        PriorityQueue<SearchNode> open = new PriorityQueue<>();
+        double weight;
+        int nodesExplored;
+        // best path published so far and its bound
+        List<int[]> solutionPath;
+        double bound = Double.POSITIVE_INFINITY;
+
+        Search(final long goal, final int[][] goalPositions, final long deadline, final SearchBudget budget) {
+            this.goal = goal;
+            this.goalPositions = goalPositions;
+            this.deadline = deadline;
+            this.budget = budget;
+        }
+
+        double priority(final long state, final int pathCost) {
+            return pathCost + weight * PuzzleState.h2(state, goalPositions);
+        }
+
+        int goalCost() {
+            return bestCostTo.getOrDefault(goal, Integer.MAX_VALUE);
+        }
+
+        void push(final long state, final int pathCost) {
+            openStates.add(state);
+            open.add(new SearchNode(state, pathCost, priority(state, pathCost)));
+        }
+
+        /**
+         * Expand states until the goal's priority is no larger than the best in OPEN.
+         * Returns false if the deadline passed while a path was already available, or the budget ran out.
+         */
+        boolean improvePath() {
+            while (!open.isEmpty()) {
+                final SearchNode current = open.peek();
+                if (current.pathCost != bestCostTo.get(current.state) || closed.contains(current.state)) {
+                    open.poll();
+                    continue;
+                }
+                if (goalCost() != Integer.MAX_VALUE && priority(goal, goalCost()) <= current.priority) return true;
+
+                open.poll();
+                openStates.remove(current.state);
+                closed.add(current.state);
+                nodesExplored++;
+                if (budget.isExhausted(nodesExplored)) return false;
+                if (nodesExplored % DEADLINE_CHECK_INTERVAL == 0 && goalCost() != Integer.MAX_VALUE
+                        && System.currentTimeMillis() > deadline) {
+                    return false;
+                }
+
+                final int successorCount = PuzzleState.expand(current.state, successors);
+                for (int k = 0; k < successorCount; k++) {
+                    final long successor = successors[k];
+                    final int newCost = current.pathCost + 1;
+                    if (newCost >= bestCostTo.getOrDefault(successor, Integer.MAX_VALUE)) continue;
+
+                    bestCostTo.put(successor, newCost);
+                    parentOf.put(successor, current.state);
+                    if (closed.contains(successor)) {
+                        inconsistent.add(successor);
+                    } else {
+                        push(successor, newCost);
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Start a new pass with a lower weight: OPEN = OPEN + INCONS re-keyed, CLOSED cleared.
+         */
+        void lowerWeight(final double newWeight) {
+            weight = newWeight;
+            openStates.addAll(inconsistent);
+            inconsistent.clear();
+            closed.clear();
+            open = new PriorityQueue<>();
+            openStates.forEach(state -> open.add(new SearchNode(state, bestCostTo.get(state),
+                    priority(state, bestCostTo.get(state)))));
+        }
+
+        /**
+         * Suboptimality bound of the current path: g(goal) / min over OPEN and INCONS of (g + h).
+         */
+        double suboptimalityBound() {
+            if (goalCost() == 0) return 1.0;
+            int lowestEstimate = goalCost();
+            for (final Set<Long> pending : List.of(openStates, inconsistent)) {
+                for (final long state : pending) {
+                    lowestEstimate = Math.min(lowestEstimate,
+                            bestCostTo.get(state) + PuzzleState.h2(state, goalPositions));
+                }
+            }
+            return Math.min(weight, (double) goalCost() / lowestEstimate);
+        }
+    }
+
+    /**
+     * Run weighted passes, lowering the weight after each, until the path is proved optimal, the deadline
+     * passes or the budget runs out. printProgress prints every improved path.
+     */
+    private static void run(final Search search, final long initial, final double initialWeight,
+                            final boolean printProgress, final long startTime) {
+        search.weight = initialWeight;
+        search.bestCostTo.put(initial, 0);
+        search.parentOf.put(initial, null);
+        search.push(initial, 0);
+
+        while (true) {
+            final boolean passCompleted = search.improvePath();
+            if (search.goalCost() == Integer.MAX_VALUE) break;
+
+            if (passCompleted) {
+                search.solutionPath = PuzzleState.reconstructPath(search.parentOf, search.goal);
+                search.bound = search.suboptimalityBound();
+                if (printProgress) {
+                    System.out.printf("  w=%.2f: path %d moves, bound %.3f, states explored %d, %d ms%n",
+                            search.weight, search.solutionPath.size() - 1, search.bound, search.nodesExplored,
+                            System.currentTimeMillis() - startTime);
+                }
+            }
+            if (!passCompleted || search.bound <= 1.0 || System.currentTimeMillis() > search.deadline) break;
+            search.lowerWeight(Math.max(1.0, Math.min(search.weight, search.bound) - WEIGHT_STEP));
+        }
+    }
+
+    /**
+     * ARA* from initial to goal with the default deadline and weight, within the budget.
+     * A budget stop after a path was published still returns that path.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final SearchBudget budget) {
+        final long startTime = System.currentTimeMillis();
+        final Search search = new Search(PuzzleState.pack(goal), PuzzleState.goalPosition(goal),
+                startTime + DEFAULT_DEADLINE_MS, budget);
+        run(search, PuzzleState.pack(initial), INITIAL_WEIGHT, false, startTime);
+        return SearchResult.of(search.solutionPath, budget, search.nodesExplored, startTime);
+    }
+
+    /**
+     * Solve a single puzzle with ARA* and print every improved path and the final result.
+     */
+    private static void solveAndPrint(final int[][] puzzle, final long deadlineMs, final double initialWeight,
+                                      final boolean printTrace) {
+        final int[] initial = puzzle[0];
+        final int[] goal = puzzle[1];
+        final int[][] goalPositions = PuzzleState.goalPosition(goal);
+
+        System.out.println("Start State: " + PuzzleState.stateToString(initial));
+        System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
+
+        final long startTime = System.currentTimeMillis();
+        final SearchBudget budget = SearchBudget.start();
+        final Search search = new Search(PuzzleState.pack(goal), goalPositions, startTime + deadlineMs, budget);
+        run(search, PuzzleState.pack(initial), initialWeight, true, startTime);
+
+        final SearchResult result = SearchResult.of(search.solutionPath, budget, search.nodesExplored, startTime);
+        result.print(String.format("h2 - Manhattan Distance, ARA* bound %.3f", search.bound), printTrace);
+        if (result.isSolved()) {
+            System.out.println(search.bound <= 1.0
+                    ? "Path is optimal."
+                    : String.format("Path is at most %.3f x optimal (deadline reached).", search.bound));
+        }
+        System.out.println();
+    }
+
+    /**
+     * java ARAStarSearch input.txt [yes|no] [deadlineMs] [initialWeight]
+     */
+    public static void main(final String[] args) {
+        final String inputFile = args.length > 0 ? args[0] : "resource/input.txt";
+        final List<int[][]> puzzles = PuzzleState.readInputMultipleLines(inputFile);
+
+        if (puzzles.isEmpty()) return;
+
+        final boolean printTrace= args.length > 1 && ("y".equalsIgnoreCase(args[1]) || "yes".equalsIgnoreCase(args[1]));
+        final long deadlineMs = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_DEADLINE_MS;
+        final double initialWeight = args.length > 3 ? Double.parseDouble(args[3]) : INITIAL_WEIGHT;
+
+        System.out.println("============================================\n Anytime Repairing A* (ARA*) \n============================================");
+        AtomicInteger i= new AtomicInteger(1);
+
+        puzzles.forEach(puzzle -> {
+            System.out.println("######################### Start of Test Case - "+i +" #########################");
+            i.getAndIncrement();
+            solveAndPrint(puzzle, deadlineMs, initialWeight, printTrace);
+            System.out.println("######################### END #########################");
+        });
+    }
+}
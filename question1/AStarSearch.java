@@ -8,21 +8,19 @@ import java.util.stream.*;
 public class AStarSearch {
 
     /**
-     * Represents a search node in the A* frontier.
+     * Represents a search node in an A* open list (ParallelAStarSearch keeps one per partition).
      */
     static final class SearchNode implements Comparable<SearchNode> {
-        final int[] state;
+        final long state;
         final int pathCost;
         final int heuristicValue;
         final int totalEstimatedCost;
-        final String stateKey;
 
-        SearchNode(final int[] state, final int pathCost, final int heuristicValue) {
+        SearchNode(final long state, final int pathCost, final int heuristicValue) {
             this.state = state;
             this.pathCost = pathCost;
             this.heuristicValue = heuristicValue;
             this.totalEstimatedCost = pathCost + heuristicValue;
-            this.stateKey = Arrays.toString(state);
         }
 
         @Override
@@ -37,7 +35,7 @@ public class AStarSearch {
     /**
      * Compute heuristic value for a state using the selected strategy.
      */
-    private static int computeHeuristic(final int[] state, final int[] goal,
+    private static int computeHeuristic(final long state, final int[] goal,
                                         final int[][] goalPositions, final boolean useMisplacedTiles) {
         return useMisplacedTiles
                 ? PuzzleState.h1(state, goal)
@@ -52,54 +50,64 @@ public class AStarSearch {
     static void solve(final int[] initial, final int[] goal, final int[][] goalPositions,
                       final boolean useMisplacedTiles, final boolean printTrace) {
         final String heuristicName = useMisplacedTiles ? "h1 - Misplaced Tiles" : "h2 - Manhattan Distance";
+        final String algorithm = "AStarSearch/" + heuristicName;
+        if (SolutionCache.printIfCached(initial, goal, algorithm, heuristicName, printTrace)) return;
+
+        // one entry per state: a cheaper path lowers the queued key instead of adding a stale duplicate
+        final IndexedStateHeap frontier = new IndexedStateHeap();
+        final SearchResult result = search(initial, goal, goalPositions, useMisplacedTiles, frontier,
+                SearchBudget.start());
+        if (result.status.isComplete()) SolutionCache.record(initial, goal, algorithm, result.solutionPath);
+        result.print(heuristicName, printTrace);
+        System.out.println("Peak frontier size: " + frontier.getPeakSize());
+    }
+
+    /**
+     * A* from initial to goal within the budget, using the caller's (empty) frontier.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final int[][] goalPositions,
+                               final boolean useMisplacedTiles, final IndexedStateHeap frontier,
+                               final SearchBudget budget) {
         final long startTime = System.currentTimeMillis();
         int nodesExplored = 0;
-        boolean solved = false;
         List<int[]> solutionPath = null;
 
-        final PriorityQueue<SearchNode> frontier = new PriorityQueue<>();
-        final Map<String, Integer> lowestCostTo = new HashMap<>();
-        final Map<String, String> parentOf = new HashMap<>();
-        final Map<String, int[]> stateByKey = new HashMap<>();
+        final Map<Long, Integer> lowestCostTo = new HashMap<>();
+        final Map<Long, Long> parentOf = new HashMap<>();
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
 
-        final String initialKey = Arrays.toString(initial);
-        final int initialHeuristic = computeHeuristic(initial, goal, goalPositions, useMisplacedTiles);
-        frontier.add(new SearchNode(initial, 0, initialHeuristic));
-        lowestCostTo.put(initialKey, 0);
-        parentOf.put(initialKey, null);
-        stateByKey.put(initialKey, initial);
+        final long initialPacked = PuzzleState.pack(initial);
+        final long goalPacked = PuzzleState.pack(goal);
+        final int initialHeuristic = computeHeuristic(initialPacked, goal, goalPositions, useMisplacedTiles);
+        frontier.insertOrDecrease(initialPacked, initialHeuristic, initialHeuristic);
+        lowestCostTo.put(initialPacked, 0);
+        parentOf.put(initialPacked, null);
 
         while (!frontier.isEmpty()) {
-            final SearchNode current = frontier.poll();
+            final long current = frontier.pollMin();
             nodesExplored++;
 
-            if (PuzzleState.isGoal(current.state, goal)) {
-                solved = true;
-                solutionPath = PuzzleState.reconstructPath(parentOf, stateByKey, current.state);
+            if (current == goalPacked) {
+                solutionPath = PuzzleState.reconstructPath(parentOf, current);
                 break;
             }
+            if (budget.isExhausted(nodesExplored)) break;
 
-            // Skip if a cheaper path to this state was already found
-            if (current.pathCost > lowestCostTo.getOrDefault(current.stateKey, Integer.MAX_VALUE)) {
-                continue;
-            }
-
-            for (final int[] successor : PuzzleState.getNeighbors(current.state)) {
-                final String successorKey = Arrays.toString(successor);
-                final int newCost = current.pathCost + 1;
+            final int newCost = lowestCostTo.get(current) + 1;
+            final int successorCount = PuzzleState.expand(current, successors);
+            for (int k = 0; k < successorCount; k++) {
+                final long successor = successors[k];
 
-                if (newCost < lowestCostTo.getOrDefault(successorKey, Integer.MAX_VALUE)) {
-                    lowestCostTo.put(successorKey, newCost);
-                    parentOf.put(successorKey, current.stateKey);
-                    stateByKey.put(successorKey, successor);
+                if (newCost < lowestCostTo.getOrDefault(successor, Integer.MAX_VALUE)) {
+                    lowestCostTo.put(successor, newCost);
+                    parentOf.put(successor, current);
                     final int successorHeuristic = computeHeuristic(successor, goal, goalPositions, useMisplacedTiles);
-                    frontier.add(new SearchNode(successor, newCost, successorHeuristic));
+                    frontier.insertOrDecrease(successor, newCost + successorHeuristic, successorHeuristic);
                 }
             }
         }
 
-        final long timeTakenInMs = System.currentTimeMillis() - startTime;
-        PuzzleState.printResult(heuristicName, solved, solutionPath, nodesExplored, timeTakenInMs, printTrace);
+        return SearchResult.of(solutionPath, budget, nodesExplored, startTime);
     }
 
     /**
@@ -3,6 +3,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Breadth-First Search (BFS) for the Manuscript Sorting Problem.
+ * In batch mode, pairs are grouped by canonical goal and one backward sweep from each goal answers every start
+ * in its group: moves are reversible, so the sweep's parent links lead from any reached start to the goal.
  */
 public class BFSSearch {
 
@@ -14,6 +16,13 @@ public class BFSSearch {
         if (puzzles.isEmpty()) return;
 
         final boolean printTrace= args.length > 1 && ("y".equalsIgnoreCase(args[1]) || "yes".equalsIgnoreCase(args[1]));
+        final boolean batch = args.length > 2 && "batch".equalsIgnoreCase(args[2]);
+
+        if (batch) {
+            System.out.println("============================================\n Breadth-First Search (BFS, batch) \n============================================");
+            solveBatch(puzzles, printTrace);
+            return;
+        }
 
         System.out.println("============================================\n Breadth-First Search (BFS)\n============================================");
 
@@ -35,48 +44,166 @@ public class BFSSearch {
 
         System.out.println("Start State: " + PuzzleState.stateToString(initial));
         System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
+        if (SolutionCache.printIfCached(initial, goal, "BFSSearch", "", printTrace)) return;
 
+        final SearchResult result = search(initial, goal, SearchBudget.start());
+        if (result.status.isComplete()) SolutionCache.record(initial, goal, "BFSSearch", result.solutionPath);
+        result.print("", printTrace);
+    }
+
+    /**
+     * Forward BFS from initial to goal within the budget.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final SearchBudget budget) {
         final long startTime = System.currentTimeMillis();
         int nodesExplored = 0;
-        boolean solved = false;
         List<int[]> solutionPath = null;
 
-        final Queue<int[]> frontier = new LinkedList<>();
-        final Map<String, String> parentOf = new HashMap<>();
-        final Map<String, int[]> stateByKey = new HashMap<>();
-        final Set<String> seen = new HashSet<>();
+        final ArrayDeque<Long> frontier = new ArrayDeque<>();
+        // parentOf doubles as the seen set; the start maps to null
+        final Map<Long, Long> parentOf = new HashMap<>();
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
 
-        final String initialKey = Arrays.toString(initial);
-        frontier.add(initial);
-        seen.add(initialKey);
-        parentOf.put(initialKey, null);
-        stateByKey.put(initialKey, initial);
+        final long initialPacked = PuzzleState.pack(initial);
+        final long goalPacked = PuzzleState.pack(goal);
+        frontier.add(initialPacked);
+        parentOf.put(initialPacked, null);
 
         while (!frontier.isEmpty()) {
-            final int[] current = frontier.poll();
-            final String currentKey = Arrays.toString(current);
+            final long current = frontier.poll();
             nodesExplored++;
 
-            if (Arrays.equals(current, goal)) {
-                solved = true;
-                solutionPath = PuzzleState.reconstructPath(parentOf, stateByKey, current);
+            if (current == goalPacked) {
+                solutionPath = PuzzleState.reconstructPath(parentOf, current);
                 break;
             }
+            if (budget.isExhausted(nodesExplored)) break;
 
-            for (final int[] successor : PuzzleState.getNeighbors(current)) {
-                final String successorKey = Arrays.toString(successor);
-                if (!seen.contains(successorKey)) {
-                    seen.add(successorKey);
-                    parentOf.put(successorKey, currentKey);
-                    stateByKey.put(successorKey, successor);
+            final int successorCount = PuzzleState.expand(current, successors);
+            for (int k = 0; k < successorCount; k++) {
+                final long successor = successors[k];
+                if (!parentOf.containsKey(successor)) {
+                    parentOf.put(successor, current);
                     frontier.add(successor);
                 }
             }
         }
 
-        final long timeTakenInMs = System.currentTimeMillis() - startTime;
+        return SearchResult.of(solutionPath, budget, nodesExplored, startTime);
+    }
+
+    /**
+     * Result of one backward sweep: towardGoal[s] is the next state on a shortest path from s to the goal,
+     * and exploredWhenReached holds how many states had been dequeued when each start was first discovered.
+     */
+    private static final class Sweep {
+        final Map<Long, Long> towardGoal = new HashMap<>();
+        final Map<Long, Integer> exploredWhenReached = new HashMap<>();
+        final Map<Long, Long> msWhenReached = new HashMap<>();
+        int nodesExplored;
+        long timeTakenInMs;
+        // set when the budget stopped the sweep before every start was reached
+        SearchStatus stopStatus;
+    }
+
+    /**
+     * Breadth-first sweep backwards from the goal, stopping once every pending start has been discovered.
+     */
+    private static Sweep sweepFromGoal(final long goalPacked, final Set<Long> pendingStarts,
+                                       final SearchBudget budget) {
+        final long startTime = System.currentTimeMillis();
+        final Sweep sweep = new Sweep();
+        final ArrayDeque<Long> frontier = new ArrayDeque<>();
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
+        final Set<Long> remaining = new HashSet<>(pendingStarts);
+
+        frontier.add(goalPacked);
+        sweep.towardGoal.put(goalPacked, null);
+        if (remaining.remove(goalPacked)) {
+            sweep.exploredWhenReached.put(goalPacked, 0);
+            sweep.msWhenReached.put(goalPacked, 0L);
+        }
+
+        while (!frontier.isEmpty() && !remaining.isEmpty()) {
+            final long current = frontier.poll();
+            sweep.nodesExplored++;
+            if (budget.isExhausted(sweep.nodesExplored)) {
+                sweep.stopStatus = budget.stopStatus();
+                break;
+            }
+
+            final int successorCount = PuzzleState.expand(current, successors);
+            for (int k = 0; k < successorCount; k++) {
+                final long successor = successors[k];
+                if (sweep.towardGoal.containsKey(successor)) continue;
+                sweep.towardGoal.put(successor, current);
+                frontier.add(successor);
+                if (remaining.remove(successor)) {
+                    sweep.exploredWhenReached.put(successor, sweep.nodesExplored);
+                    sweep.msWhenReached.put(successor, System.currentTimeMillis() - startTime);
+                }
+            }
+        }
+        sweep.timeTakenInMs = System.currentTimeMillis() - startTime;
+        return sweep;
+    }
+
+    /**
+     * Answer every pair with one backward sweep per distinct canonical goal, then print results in input order.
+     */
+    private static void solveBatch(final List<int[][]> puzzles, final boolean printTrace) {
+        final List<GoalCanonicalizer> canonicalizers = new ArrayList<>(puzzles.size());
+        final Map<Long, Set<Long>> startsByGoal = new LinkedHashMap<>();
+        for (final int[][] puzzle : puzzles) {
+            final GoalCanonicalizer canonicalizer = new GoalCanonicalizer(puzzle[1]);
+            canonicalizers.add(canonicalizer);
+            final Set<Long> starts = startsByGoal.computeIfAbsent(canonicalizer.canonicalGoalPacked(),
+                    goal -> new HashSet<>());
+            // unreachable starts would make the sweep exhaust the whole component
+            if (PuzzleState.isSolvable(puzzle[0], puzzle[1])) {
+                starts.add(PuzzleState.pack(canonicalizer.canonicalize(puzzle[0])));
+            }
+        }
+
+        final Map<Long, Sweep> sweeps = new HashMap<>();
+        startsByGoal.forEach((goal, starts) -> sweeps.put(goal, sweepFromGoal(goal, starts, SearchBudget.start())));
 
-        PuzzleState.printResult("",
-                solved, solutionPath, nodesExplored, timeTakenInMs, printTrace);
+        AtomicInteger i= new AtomicInteger(1);
+        for (int index = 0; index < puzzles.size(); index++) {
+            final int[][] puzzle = puzzles.get(index);
+            final GoalCanonicalizer canonicalizer = canonicalizers.get(index);
+            final Sweep sweep = sweeps.get(canonicalizer.canonicalGoalPacked());
+            final long start = PuzzleState.pack(canonicalizer.canonicalize(puzzle[0]));
+
+            System.out.println("######################### Start of Test Case - "+i +" #########################");
+            i.getAndIncrement();
+            System.out.println("Start State: " + PuzzleState.stateToString(puzzle[0]));
+            System.out.println("Goal  State: " + PuzzleState.stateToString(puzzle[1]));
+
+            final boolean solved = sweep.exploredWhenReached.containsKey(start);
+            List<int[]> solutionPath = null;
+            if (solved) {
+                final List<int[]> canonicalPath = new ArrayList<>();
+                for (Long state = start; state != null; state = sweep.towardGoal.get(state)) {
+                    canonicalPath.add(PuzzleState.unpack(state));
+                }
+                solutionPath = canonicalizer.restorePath(canonicalPath);
+            }
+            final SearchStatus status = solved ? SearchStatus.SOLVED
+                    : sweep.stopStatus != null ? sweep.stopStatus : SearchStatus.NO_SOLUTION;
+            new SearchResult(status, solutionPath,
+                    solved ? sweep.exploredWhenReached.get(start) : sweep.nodesExplored,
+                    solved ? sweep.msWhenReached.get(start) : sweep.timeTakenInMs).print("", printTrace);
+            System.out.println("######################### END #########################");
+        }
+
+        startsByGoal.forEach((goal, starts) -> {
+            final Sweep sweep = sweeps.get(goal);
+            // only starts the sweep reached got a path; the rest were cut off by the budget
+            System.out.printf("Backward sweep from %s: %d of %d distinct starts answered, %d states explored, %d ms%s%n",
+                    PuzzleState.stateToString(PuzzleState.unpack(goal)), sweep.exploredWhenReached.size(),
+                    starts.size(), sweep.nodesExplored, sweep.timeTakenInMs,
+                    sweep.stopStatus != null ? " (stopped early: " + sweep.stopStatus + ")" : "");
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,239 @@
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Cooling schedules for Simulated Annealing.
+ * A schedule supplies T0 and the next temperature after each iteration; the adaptive schedule also
+ * watches the acceptance of uphill moves (observe) to steer itself. Schedules keep per-run state,
+ * so create a new one for every run.
+ */
+public interface CoolingSchedule {
+
+    double initialTemperature();
+
+    /**
+     * Temperature for the iteration after 'iteration'.
+     */
+    double next(double temperature, int iteration);
+
+    /**
+     * Feedback from the search after each proposal. Only the adaptive schedule uses it.
+     */
+    default void observe(final int costDifference, final boolean accepted, final boolean improvedBest) {
+    }
+
+    String name();
+
+    /**
+     * Parameter lines for printCoolingSchedule.
+     */
+    List<String> describe();
+
+    /**
+     * Names accepted by named and create ("log" is also accepted for logarithmic).
+     */
+    List<String> NAMES = List.of("geometric", "linear", "logarithmic", "adaptive");
+
+    /**
+     * Resolve a schedule name once; the supplier builds a fresh schedule for every run.
+     */
+    static Supplier<CoolingSchedule> named(final String name, final double startingTemperature,
+                                           final double coolingFactor, final int iterationLimit) {
+        switch (name.toLowerCase()) {
+            case "geometric":
+                return () -> new Geometric(startingTemperature, coolingFactor);
+            case "linear":
+                return () -> new Linear(startingTemperature, iterationLimit);
+            case "log":
+            case "logarithmic":
+                return () -> new Logarithmic(startingTemperature);
+            case "adaptive":
+                return () -> new Adaptive(startingTemperature);
+            default:
+                throw new IllegalArgumentException("Unknown cooling schedule: " + name
+                        + " (expected " + String.join(", ", NAMES) + ")");
+        }
+    }
+
+    /**
+     * Build a schedule by name: geometric, linear, logarithmic (log) or adaptive.
+     */
+    static CoolingSchedule create(final String name, final double startingTemperature,
+                                  final double coolingFactor, final int iterationLimit) {
+        return named(name, startingTemperature, coolingFactor, iterationLimit).get();
+    }
+
+    /**
+     * T(k+1) = alpha * T(k).
+     */
+    final class Geometric implements CoolingSchedule {
+        private final double startingTemperature;
+        private final double coolingFactor;
+
+        Geometric(final double startingTemperature, final double coolingFactor) {
+            this.startingTemperature = startingTemperature;
+            this.coolingFactor = coolingFactor;
+        }
+
+        @Override
+        public double initialTemperature() {
+            return startingTemperature;
+        }
+
+        @Override
+        public double next(final double temperature, final int iteration) {
+            return temperature * coolingFactor;
+        }
+
+        @Override
+        public String name() {
+            return "geometric";
+        }
+
+        @Override
+        public List<String> describe() {
+            return List.of("T0           = " + startingTemperature,
+                    "Cooling Rate = " + coolingFactor);
+        }
+    }
+
+    /**
+     * T(k) = T0 * (1 - k / iterationLimit): reaches zero exactly at the iteration limit.
+     */
+    final class Linear implements CoolingSchedule {
+        private final double startingTemperature;
+        private final int iterationLimit;
+
+        Linear(final double startingTemperature, final int iterationLimit) {
+            this.startingTemperature = startingTemperature;
+            this.iterationLimit = iterationLimit;
+        }
+
+        @Override
+        public double initialTemperature() {
+            return startingTemperature;
+        }
+
+        @Override
+        public double next(final double temperature, final int iteration) {
+            return startingTemperature * (1.0 - (double) (iteration + 1) / iterationLimit);
+        }
+
+        @Override
+        public String name() {
+            return "linear";
+        }
+
+        @Override
+        public List<String> describe() {
+            return List.of("T0           = " + startingTemperature,
+                    "Decrement    = " + startingTemperature / iterationLimit + " per iteration");
+        }
+    }
+
+    /**
+     * T(k) = T0 / ln(k + e): the classic slow schedule with the asymptotic convergence guarantee.
+     */
+    final class Logarithmic implements CoolingSchedule {
+        private final double startingTemperature;
+
+        Logarithmic(final double startingTemperature) {
+            this.startingTemperature = startingTemperature;
+        }
+
+        @Override
+        public double initialTemperature() {
+            return startingTemperature;
+        }
+
+        @Override
+        public double next(final double temperature, final int iteration) {
+            return startingTemperature / Math.log(iteration + 1 + Math.E);
+        }
+
+        @Override
+        public String name() {
+            return "logarithmic";
+        }
+
+        @Override
+        public List<String> describe() {
+            return List.of("T0           = " + startingTemperature,
+                    "T(k)         = T0 / ln(k + e)");
+        }
+    }
+
+    /**
+     * Keeps the acceptance rate of uphill moves near a target that decays window by window.
+     * After every window the temperature is nudged down if too many uphill moves were accepted and
+     * up if too few. If the best distance has not improved for STAGNATION_LIMIT iterations,
+     * the schedule reheats to half of T0 and restarts the target.
+     */
+    final class Adaptive implements CoolingSchedule {
+        private static final int WINDOW = 1000;
+        private static final double INITIAL_TARGET = 0.4;
+        private static final double TARGET_DECAY = 0.98;
+        private static final double ADJUSTMENT = 0.9;
+        private static final int STAGNATION_LIMIT = 50000;
+        private static final double REHEAT_FRACTION = 0.5;
+
+        private final double startingTemperature;
+        private double targetAcceptance = INITIAL_TARGET;
+        private int uphillProposals;
+        private int uphillAccepted;
+        private int iterationsSinceImprovement;
+        private int reheats;
+
+        Adaptive(final double startingTemperature) {
+            this.startingTemperature = startingTemperature;
+        }
+
+        @Override
+        public double initialTemperature() {
+            return startingTemperature;
+        }
+
+        @Override
+        public void observe(final int costDifference, final boolean accepted, final boolean improvedBest) {
+            if (costDifference > 0) {
+                uphillProposals++;
+                if (accepted) uphillAccepted++;
+            }
+            iterationsSinceImprovement = improvedBest ? 0 : iterationsSinceImprovement + 1;
+        }
+
+        @Override
+        public double next(final double temperature, final int iteration) {
+            if (iterationsSinceImprovement >= STAGNATION_LIMIT) {
+                iterationsSinceImprovement = 0;
+                targetAcceptance = INITIAL_TARGET;
+                reheats++;
+                return startingTemperature * REHEAT_FRACTION;
+            }
+            if ((iteration + 1) % WINDOW != 0 || uphillProposals == 0) return temperature;
+
+            final double acceptanceRate = (double) uphillAccepted / uphillProposals;
+            uphillProposals = 0;
+            uphillAccepted = 0;
+            final double adjusted = acceptanceRate > targetAcceptance ? temperature * ADJUSTMENT : temperature / ADJUSTMENT;
+            targetAcceptance *= TARGET_DECAY;
+            return adjusted;
+        }
+
+        int getReheats() {
+            return reheats;
+        }
+
+        @Override
+        public String name() {
+            return "adaptive";
+        }
+
+        @Override
+        public List<String> describe() {
+            return List.of("T0           = " + startingTemperature,
+                    "Target uphill acceptance = " + INITIAL_TARGET + " (x" + TARGET_DECAY + " every " + WINDOW + " iterations)",
+                    "Reheat to " + REHEAT_FRACTION + " * T0 after " + STAGNATION_LIMIT + " iterations without improvement");
+        }
+    }
+}
@@ -7,6 +7,58 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class DFSSearch {
 
     private static final int MAX_DEPTH = 50;
+    // Every solvable 8-puzzle is at most 31 moves from its goal, so deepening stops there
+    private static final int DEEPENING_LIMIT = 31;
+    private static final int NO_DIRECTION = -1;
+
+    /**
+     * State of one iterative-deepening run; each call gets its own, so searches can run on several threads at once.
+     */
+    private static final class Deepening {
+        final long goal;
+        final SearchBudget budget;
+        final long[] currentPath = new long[DEEPENING_LIMIT + 1];
+        int nodesExplored;
+        int depthLimit;
+        SearchResult result;
+
+        Deepening(final long goal, final SearchBudget budget) {
+            this.goal = goal;
+            this.budget = budget;
+        }
+
+        /**
+         * Depth-limited DFS below currentPath[depth]. A move that undoes the previous one is never
+         * generated, and a state already on the current path is skipped. Returns false at once when the budget runs out.
+         */
+        boolean depthLimitedSearch(final int depth, final int blankPos, final int lastDirection) {
+            nodesExplored++;
+            final long current = currentPath[depth];
+            if (current == goal) return true;
+            if (budget.isExhausted(nodesExplored) || depth == depthLimit) return false;
+
+            final int[] targets = PuzzleState.MOVE_TARGETS[blankPos];
+            final int[] directions = PuzzleState.MOVE_DIRECTIONS[blankPos];
+            for (int k = 0; k < targets.length; k++) {
+                if (lastDirection != NO_DIRECTION && directions[k] == MoveLog.opposite(lastDirection)) continue;
+
+                final long successor = PuzzleState.slide(current, blankPos, targets[k]);
+                if (isOnPath(depth, successor)) continue;
+
+                currentPath[depth + 1] = successor;
+                if (depthLimitedSearch(depth + 1, targets[k], directions[k])) return true;
+                if (budget.stopStatus() != null) return false;
+            }
+            return false;
+        }
+
+        private boolean isOnPath(final int depth, final long state) {
+            for (int index = 0; index < depth; index++) {
+                if (currentPath[index] == state) return true;
+            }
+            return false;
+        }
+    }
 
     public static void main(final String[] args) {
         final String inputFile = args.length > 0 ? args[0] : "resource/input.txt";
@@ -15,13 +67,20 @@ public class DFSSearch {
         if (puzzles.isEmpty()) return;
 
         final boolean printTrace= args.length > 1 && ("y".equalsIgnoreCase(args[1]) || "yes".equalsIgnoreCase(args[1]));
-        System.out.println("============================================\n Depth-First Search (DFS) \n============================================");
+        final boolean iterativeDeepening = args.length > 2 && "iddfs".equalsIgnoreCase(args[2]);
+        System.out.println(iterativeDeepening
+                ? "============================================\n Iterative Deepening DFS (IDDFS) \n============================================"
+                : "============================================\n Depth-First Search (DFS) \n============================================");
 
         AtomicInteger i= new AtomicInteger(1);
         puzzles.forEach(puzzle -> {
             System.out.println("######################### Start of Test Case - "+i +" #########################");
             i.getAndIncrement();
-            solveAndPrint(puzzle, printTrace);
+            if (iterativeDeepening) {
+                solveIterativeDeepening(puzzle, printTrace);
+            } else {
+                solveAndPrint(puzzle, printTrace);
+            }
             System.out.println("######################### END #########################");
         });
     }
@@ -36,55 +95,111 @@ public class DFSSearch {
         System.out.println("Start State: " + PuzzleState.stateToString(initial));
         System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
 
+        search(initial, goal, SearchBudget.start()).print("Depth Limit = " + MAX_DEPTH, printTrace);
+    }
+
+    /**
+     * Depth-limited DFS (MAX_DEPTH) from initial to goal within the budget.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final SearchBudget budget) {
         final long startTime = System.currentTimeMillis();
         int nodesExplored = 0;
-        boolean solved = false;
         List<int[]> solutionPath = null;
 
-        final Deque<int[]> frontier = new ArrayDeque<>();
-        final Deque<Integer> depthTracker = new ArrayDeque<>();
-        final Map<String, String> parentOf = new HashMap<>();
-        final Map<String, int[]> stateByKey = new HashMap<>();
-        final Set<String> seen = new HashSet<>();
-
-        final String initialKey = Arrays.toString(initial);
-        frontier.push(initial);
-        depthTracker.push(0);
-        parentOf.put(initialKey, null);
-        stateByKey.put(initialKey, initial);
-
-        while (!frontier.isEmpty()) {
-            final int[] current = frontier.pop();
-            final int currentDepth = depthTracker.pop();
-            final String currentKey = Arrays.toString(current);
-
-            if (seen.contains(currentKey)) continue;
-            seen.add(currentKey);
+        // explicit stack: LIFO order keeps at most MAX_NEIGHBORS entries per depth level
+        final long[] frontier = new long[(MAX_DEPTH + 1) * PuzzleState.MAX_NEIGHBORS];
+        final int[] depthTracker = new int[frontier.length];
+        int frontierSize = 0;
+        final Map<Long, Long> parentOf = new HashMap<>();
+        final Set<Long> seen = new HashSet<>();
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
+
+        final long initialPacked = PuzzleState.pack(initial);
+        final long goalPacked = PuzzleState.pack(goal);
+        frontier[frontierSize] = initialPacked;
+        depthTracker[frontierSize++] = 0;
+        parentOf.put(initialPacked, null);
+
+        while (frontierSize > 0) {
+            frontierSize--;
+            final long current = frontier[frontierSize];
+            final int currentDepth = depthTracker[frontierSize];
+
+            if (!seen.add(current)) continue;
             nodesExplored++;
 
-            if (Arrays.equals(current, goal)) {
-                solved = true;
-                solutionPath = PuzzleState.reconstructPath(parentOf, stateByKey, current);
+            if (current == goalPacked) {
+                solutionPath = PuzzleState.reconstructPath(parentOf, current);
                 break;
             }
+            if (budget.isExhausted(nodesExplored)) break;
 
             if (currentDepth >= MAX_DEPTH) continue;
 
-            for (final int[] successor : PuzzleState.getNeighbors(current)) {
-                final String successorKey = Arrays.toString(successor);
-                if (!seen.contains(successorKey)) {
-                    parentOf.put(successorKey, currentKey);
-                    stateByKey.put(successorKey, successor);
-                    frontier.push(successor);
-                    depthTracker.push(currentDepth + 1);
+            final int successorCount = PuzzleState.expand(current, successors);
+            for (int k = 0; k < successorCount; k++) {
+                final long successor = successors[k];
+                if (!seen.contains(successor)) {
+                    parentOf.put(successor, current);
+                    frontier[frontierSize] = successor;
+                    depthTracker[frontierSize++] = currentDepth + 1;
                 }
             }
         }
 
-        final long timeTakenInMs = System.currentTimeMillis() - startTime;
+        // the depth limit and the shared visited set can hide a path that exists
+        return SearchResult.ofIncomplete(solutionPath, PuzzleState.isSolvable(initial, goal), budget, nodesExplored,
+                startTime);
+    }
+
+    /**
+     * Solve a single puzzle with iterative deepening and print the results.
+     * Depth limits 0, 1, 2, ... are searched in turn, so the first path found is a shortest one.
+     * Only the current path is kept in memory; there is no visited set.
+     */
+    private static void solveIterativeDeepening(final int[][] puzzle, final boolean printTrace) {
+        final int[] initial = puzzle[0];
+        final int[] goal = puzzle[1];
+
+        System.out.println("Start State: " + PuzzleState.stateToString(initial));
+        System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
+
+        final Deepening deepening = runIterativeDeepening(initial, goal, SearchBudget.start());
+        deepening.result.print("Iterative Deepening, depth limit = " + deepening.depthLimit, printTrace);
+    }
+
+    /**
+     * Iterative deepening from initial to goal within the budget.
+     */
+    static SearchResult searchIterativeDeepening(final int[] initial, final int[] goal, final SearchBudget budget) {
+        return runIterativeDeepening(initial, goal, budget).result;
+    }
+
+    private static Deepening runIterativeDeepening(final int[] initial, final int[] goal, final SearchBudget budget) {
+        final long startTime = System.currentTimeMillis();
+        final Deepening deepening = new Deepening(PuzzleState.pack(goal), budget);
+        List<int[]> solutionPath = null;
+
+        final long[] currentPath = deepening.currentPath;
+        currentPath[0] = PuzzleState.pack(initial);
+        final int initialBlank = PuzzleState.blankPosition(currentPath[0]);
+
+        // an unsolvable pair would otherwise be searched exhaustively up to DEEPENING_LIMIT
+        int depthLimit = PuzzleState.isSolvable(initial, goal) ? 0 : DEEPENING_LIMIT + 1;
+        for (; depthLimit <= DEEPENING_LIMIT; depthLimit++) {
+            deepening.depthLimit = depthLimit;
+            if (deepening.depthLimitedSearch(0, initialBlank, NO_DIRECTION)) {
+                solutionPath = new ArrayList<>();
+                for (int depth = 0; depth <= depthLimit; depth++) {
+                    solutionPath.add(PuzzleState.unpack(currentPath[depth]));
+                }
+                break;
+            }
+            if (budget.stopStatus() != null) break;
+        }
+        deepening.depthLimit = Math.min(depthLimit, DEEPENING_LIMIT);
 
-        PuzzleState.printResult(
-                "Depth Limit = " + MAX_DEPTH,
-                solved, solutionPath, nodesExplored, timeTakenInMs, printTrace);
+        deepening.result = SearchResult.of(solutionPath, budget, deepening.nodesExplored, startTime);
+        return deepening;
     }
-}
\ No newline at end of file
+}
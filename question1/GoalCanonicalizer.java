@@ -0,0 +1,139 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GoalCanonicalizer - Relabels tiles so that any (start, goal) pair becomes an equivalent pair with a standard
+ * goal. Tiles are renamed 1..8 in the reading order of the goal and the blank stays blank, so every move,
+ * heuristic value and path length is unchanged. Relabeling cannot move the blank, so there is one standard goal
+ * per blank position; the usual goal (blank last) maps onto 123 456 78B. Tables built for a standard goal
+ * (goal positions, distance tables, cached solutions) are shared by every test case, and paths are mapped back.
+ */
+public class GoalCanonicalizer {
+
+    // STANDARD_GOALS[b] = tiles 1..8 in reading order with the blank at position b
+    public static final int[][] STANDARD_GOALS = new int[PuzzleState.TILE_COUNT][];
+    public static final int[][][] STANDARD_GOAL_POSITIONS = new int[PuzzleState.TILE_COUNT][][];
+    public static final int[] STANDARD_GOAL;
+
+    static {
+        for (int blankPos = 0; blankPos < PuzzleState.TILE_COUNT; blankPos++) {
+            final int[] goal = new int[PuzzleState.TILE_COUNT];
+            int label = 1;
+            for (int i = 0; i < PuzzleState.TILE_COUNT; i++) {
+                goal[i] = i == blankPos ? PuzzleState.BLANK : label++;
+            }
+            STANDARD_GOALS[blankPos] = goal;
+            STANDARD_GOAL_POSITIONS[blankPos] = PuzzleState.goalPosition(goal);
+        }
+        STANDARD_GOAL = STANDARD_GOALS[PuzzleState.TILE_COUNT - 1];
+    }
+
+    private final int blankPos;
+    private final int[] toCanonical = new int[PuzzleState.TILE_COUNT];
+    private final int[] fromCanonical = new int[PuzzleState.TILE_COUNT];
+
+    public GoalCanonicalizer(final int[] goal) {
+        this.blankPos = PuzzleState.findBlank(goal);
+        final int[] standard = STANDARD_GOALS[blankPos];
+        for (int i = 0; i < PuzzleState.TILE_COUNT; i++) {
+            toCanonical[goal[i]] = standard[i];
+            fromCanonical[standard[i]] = goal[i];
+        }
+    }
+
+    /**
+     * The standard goal this canonicalizer maps onto.
+     */
+    public int[] canonicalGoal() {
+        return STANDARD_GOALS[blankPos];
+    }
+
+    public long canonicalGoalPacked() {
+        return PuzzleState.pack(STANDARD_GOALS[blankPos]);
+    }
+
+    public int[][] canonicalGoalPositions() {
+        return STANDARD_GOAL_POSITIONS[blankPos];
+    }
+
+    /**
+     * Relabel a state into the standard-goal space.
+     */
+    public int[] canonicalize(final int[] state) {
+        return relabel(state, toCanonical);
+    }
+
+    public long canonicalize(final long packed) {
+        return relabel(packed, toCanonical);
+    }
+
+    /**
+     * Map a canonical state back to the original labels.
+     */
+    public int[] restore(final int[] state) {
+        return relabel(state, fromCanonical);
+    }
+
+    public long restore(final long packed) {
+        return relabel(packed, fromCanonical);
+    }
+
+    /**
+     * Map a path found in the standard-goal space back to the original labels.
+     */
+    public List<int[]> restorePath(final List<int[]> canonicalPath) {
+        final List<int[]> path = new ArrayList<>(canonicalPath.size());
+        for (final int[] state : canonicalPath) {
+            path.add(restore(state));
+        }
+        return path;
+    }
+
+    private static int[] relabel(final int[] state, final int[] labels) {
+        final int[] relabeled = new int[PuzzleState.TILE_COUNT];
+        for (int i = 0; i < PuzzleState.TILE_COUNT; i++) {
+            relabeled[i] = labels[state[i]];
+        }
+        return relabeled;
+    }
+
+    private static long relabel(final long packed, final int[] labels) {
+        long relabeled = 0L;
+        for (int i = 0; i < PuzzleState.TILE_COUNT; i++) {
+            relabeled |= ((long) labels[PuzzleState.tileAt(packed, i)]) << (i * PuzzleState.BITS_PER_TILE);
+        }
+        return relabeled;
+    }
+
+    /**
+     * java GoalCanonicalizer input.txt
+     * Prints each pair next to its canonical start and counts how many distinct canonical problems remain.
+     */
+    public static void main(final String[] args) {
+        final String inputFile = args.length > 0 ? args[0] : "resource/input.txt";
+        final List<int[][]> puzzles = PuzzleState.readInputMultipleLines(inputFile);
+
+        if (puzzles.isEmpty()) return;
+
+        System.out.println("============================================\n Goal Canonicalization \n============================================");
+        final Set<List<Long>> distinctProblems = new HashSet<>();
+        final AtomicInteger testCaseNumber = new AtomicInteger(1);
+
+        puzzles.forEach(puzzle -> {
+            final GoalCanonicalizer canonicalizer = new GoalCanonicalizer(puzzle[1]);
+            final int[] canonicalStart = canonicalizer.canonicalize(puzzle[0]);
+            distinctProblems.add(List.of(PuzzleState.pack(canonicalStart), canonicalizer.canonicalGoalPacked()));
+
+            System.out.println("######################### Start of Test Case - " + testCaseNumber + " #########################");
+            testCaseNumber.getAndIncrement();
+            System.out.println("Start State    : " + PuzzleState.stateToString(puzzle[0]));
+            System.out.println("Goal  State    : " + PuzzleState.stateToString(puzzle[1]));
+            System.out.println("Canonical Start: " + PuzzleState.stateToString(canonicalStart));
+            System.out.println("Canonical Goal : " + PuzzleState.stateToString(canonicalizer.canonicalGoal()));
+            System.out.println("######################### END #########################");
+        });
+
+        System.out.printf("%d pairs, %d distinct problems against the standard goals%n",
+                puzzles.size(), distinctProblems.size());
+    }
+}
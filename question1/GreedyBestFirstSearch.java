@@ -10,14 +10,12 @@ public class GreedyBestFirstSearch {
      * Represents a search node ranked solely by heuristic value.
      */
     static final class SearchNode implements Comparable<SearchNode> {
-        final int[] state;
+        final long state;
         final int heuristicValue;
-        final String stateKey;
 
-        SearchNode(final int[] state, final int heuristicValue) {
+        SearchNode(final long state, final int heuristicValue) {
             this.state = state;
             this.heuristicValue = heuristicValue;
-            this.stateKey = Arrays.toString(state);
         }
 
         @Override
@@ -54,52 +52,57 @@ public class GreedyBestFirstSearch {
 
         System.out.println("Start State: " + PuzzleState.stateToString(initial));
         System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
+        if (SolutionCache.printIfCached(initial, goal, "GreedyBestFirstSearch", "h2 - Manhattan Distance",
+                printTrace)) return;
 
+        final SearchResult result = search(initial, goal, goalPositions, SearchBudget.start());
+        if (result.status.isComplete()) {
+            SolutionCache.record(initial, goal, "GreedyBestFirstSearch", result.solutionPath);
+        }
+        result.print("h2 - Manhattan Distance", printTrace);
+    }
+
+    /**
+     * Greedy best-first search on h2 from initial to goal within the budget.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final int[][] goalPositions,
+                               final SearchBudget budget) {
         final long startTime = System.currentTimeMillis();
         int nodesExplored = 0;
-        boolean solved = false;
         List<int[]> solutionPath = null;
 
         final PriorityQueue<SearchNode> frontier = new PriorityQueue<>();
-        final Map<String, String> parentOf = new HashMap<>();
-        final Map<String, int[]> stateByKey = new HashMap<>();
-        final Set<String> seen = new HashSet<>();
+        final Map<Long, Long> parentOf = new HashMap<>();
+        final Set<Long> seen = new HashSet<>();
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
 
-        final String initialKey = Arrays.toString(initial);
-        frontier.add(new SearchNode(initial, PuzzleState.h2(initial, goalPositions)));
-        parentOf.put(initialKey, null);
-        stateByKey.put(initialKey, initial);
+        final long initialPacked = PuzzleState.pack(initial);
+        final long goalPacked = PuzzleState.pack(goal);
+        frontier.add(new SearchNode(initialPacked, PuzzleState.h2(initialPacked, goalPositions)));
+        parentOf.put(initialPacked, null);
 
         while (!frontier.isEmpty()) {
             final SearchNode current = frontier.poll();
 
-            if (seen.contains(current.stateKey)) continue;
-            seen.add(current.stateKey);
+            if (!seen.add(current.state)) continue;
             nodesExplored++;
 
-            if (PuzzleState.isGoal(current.state, goal)) {
-                solved = true;
-                solutionPath = PuzzleState.reconstructPath(parentOf, stateByKey, current.state);
+            if (current.state == goalPacked) {
+                solutionPath = PuzzleState.reconstructPath(parentOf, current.state);
                 break;
             }
+            if (budget.isExhausted(nodesExplored)) break;
 
-            for (final int[] successor : PuzzleState.getNeighbors(current.state)) {
-                final String successorKey = Arrays.toString(successor);
-                if (!seen.contains(successorKey)) {
-                    if (!parentOf.containsKey(successorKey)) {
-                        parentOf.put(successorKey, current.stateKey);
-                        stateByKey.put(successorKey, successor);
-                    }
+            final int successorCount = PuzzleState.expand(current.state, successors);
+            for (int k = 0; k < successorCount; k++) {
+                final long successor = successors[k];
+                if (!seen.contains(successor)) {
+                    if (!parentOf.containsKey(successor)) parentOf.put(successor, current.state);
                     frontier.add(new SearchNode(successor, PuzzleState.h2(successor, goalPositions)));
                 }
             }
         }
 
-
-        final long timeTakenInMS = System.currentTimeMillis() - startTime;
-
-        PuzzleState.printResult(
-                "h2 - Manhattan Distance",
-                solved, solutionPath, nodesExplored, timeTakenInMS, printTrace);
+        return SearchResult.of(solutionPath, budget, nodesExplored, startTime);
     }
 }
\ No newline at end of file
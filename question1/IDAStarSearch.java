@@ -6,53 +6,98 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class IDAStarSearch {
 
-    private static int nodesExplored;
-
     private static final int SOLUTION_FOUND = -1;
+    private static final int BUDGET_STOPPED = -2;
 
     /**
-     * Recursive depth-limited search with f-value threshold.
-     * Returns SOLUTION_FOUND (-1) if goal reached, otherwise the minimum f exceeding the threshold.
+     * State of one IDA* run: the current path, a successor buffer per depth and the counters.
+     * Each call gets its own, so searches can run on several threads at once.
      */
-    static int depthLimitedSearch(final List<int[]> currentPath, final int[] goal,
-                                  final int[][] goalPositions, final Set<String> onCurrentPath,
-                                  final int pathCost, final int threshold,
-                                  final boolean useMisplacedTiles) {
-        final int[] current = currentPath.get(currentPath.size() - 1);
-        final int heuristic = useMisplacedTiles
-                ? PuzzleState.h1(current, goal)
-                : PuzzleState.h2(current, goalPositions);
-        final int estimatedTotal = pathCost + heuristic;
-
-        if (estimatedTotal > threshold) {
-            return estimatedTotal;
+    private static final class Search {
+        final long goal;
+        final int[] goalArray;
+        final int[][] goalPositions;
+        final boolean useMisplacedTiles;
+        final SearchBudget budget;
+        // current path (packed states) and one successor buffer per depth, reused across iterations
+        long[] currentPath = new long[64];
+        long[][] successorBuffers = new long[64][PuzzleState.MAX_NEIGHBORS];
+        int nodesExplored;
+        int iterationCount;
+        SearchResult result;
+
+        Search(final int[] goal, final int[][] goalPositions, final boolean useMisplacedTiles,
+               final SearchBudget budget) {
+            this.goal = PuzzleState.pack(goal);
+            this.goalArray = goal;
+            this.goalPositions = goalPositions;
+            this.useMisplacedTiles = useMisplacedTiles;
+            this.budget = budget;
         }
 
-        nodesExplored++;
+        /**
+         * Recursive depth-limited search with f-value threshold.
+         * currentPath[0..pathCost] holds the path to the current state.
+         * Returns SOLUTION_FOUND (-1) if goal reached, BUDGET_STOPPED (-2) if the budget ran out,
+         * otherwise the minimum f exceeding the threshold.
+         */
+        int depthLimitedSearch(final int pathCost, final int threshold) {
+            final long current = currentPath[pathCost];
+            final int heuristic = useMisplacedTiles
+                    ? PuzzleState.h1(current, goalArray)
+                    : PuzzleState.h2(current, goalPositions);
+            final int estimatedTotal = pathCost + heuristic;
+
+            if (estimatedTotal > threshold) {
+                return estimatedTotal;
+            }
 
-        if (PuzzleState.isGoal(current, goal)) {
-            return SOLUTION_FOUND;
-        }
+            nodesExplored++;
 
-        int nextThreshold = Integer.MAX_VALUE;
-        for (final int[] successor : PuzzleState.getNeighbors(current)) {
-            final String successorKey = Arrays.toString(successor);
-            if (onCurrentPath.contains(successorKey)) continue;
+            if (current == goal) {
+                return SOLUTION_FOUND;
+            }
+            if (budget.isExhausted(nodesExplored)) return BUDGET_STOPPED;
+
+            ensureDepthCapacity(pathCost + 1);
+            final long[] successors = successorBuffers[pathCost];
+            final int successorCount = PuzzleState.expand(current, successors);
 
-            currentPath.add(successor);
-            onCurrentPath.add(successorKey);
+            int nextThreshold = Integer.MAX_VALUE;
+            for (int k = 0; k < successorCount; k++) {
+                final long successor = successors[k];
+                if (isOnPath(successor, pathCost)) continue;
 
-            final int searchResult = depthLimitedSearch(currentPath, goal, goalPositions,
-                    onCurrentPath, pathCost + 1, threshold, useMisplacedTiles);
+                currentPath[pathCost + 1] = successor;
 
-            if (searchResult == SOLUTION_FOUND) return SOLUTION_FOUND;
-            nextThreshold = Math.min(nextThreshold, searchResult);
+                final int searchResult = depthLimitedSearch(pathCost + 1, threshold);
 
-            currentPath.remove(currentPath.size() - 1);
-            onCurrentPath.remove(successorKey);
+                if (searchResult == SOLUTION_FOUND || searchResult == BUDGET_STOPPED) return searchResult;
+                nextThreshold = Math.min(nextThreshold, searchResult);
+            }
+
+            return nextThreshold;
         }
 
-        return nextThreshold;
+        /**
+         * Linear scan of the current path; cheaper than hashing at IDA* depths.
+         */
+        private boolean isOnPath(final long state, final int pathCost) {
+            for (int depth = 0; depth <= pathCost; depth++) {
+                if (currentPath[depth] == state) return true;
+            }
+            return false;
+        }
+
+        private void ensureDepthCapacity(final int depth) {
+            if (depth < currentPath.length) return;
+            final int oldLength = currentPath.length;
+            currentPath = Arrays.copyOf(currentPath, oldLength * 2);
+            successorBuffers = Arrays.copyOf(successorBuffers, oldLength * 2);
+            for (int i = oldLength; i < successorBuffers.length; i++) {
+                successorBuffers[i] = new long[PuzzleState.MAX_NEIGHBORS];
+            }
+        }
     }
 
     /**
@@ -63,48 +108,68 @@ public class IDAStarSearch {
     static void solve(final int[] initial, final int[] goal, final int[][] goalPositions,
                       final boolean useMisplacedTiles, final boolean printTrace) {
         final String heuristicName = useMisplacedTiles ? "h1 - Misplaced Tiles" : "h2 - Manhattan Distance";
+        final String algorithm = "IDAStarSearch/" + heuristicName;
+        if (SolutionCache.printIfCached(initial, goal, algorithm, heuristicName, printTrace)) {
+            System.out.println();
+            return;
+        }
+
+        final Search search = run(initial, goal, goalPositions, useMisplacedTiles, true, SearchBudget.start());
+        final SearchResult result = search.result;
+        if (result.status.isComplete()) SolutionCache.record(initial, goal, algorithm, result.solutionPath);
+        result.print(heuristicName, printTrace);
+        System.out.println("Total IDA* iterations: " + search.iterationCount + "\n");
+    }
+
+    /**
+     * IDA* from initial to goal within the budget; printProgress prints one line per threshold.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final int[][] goalPositions,
+                               final boolean useMisplacedTiles, final boolean printProgress,
+                               final SearchBudget budget) {
+        return run(initial, goal, goalPositions, useMisplacedTiles, printProgress, budget).result;
+    }
+
+    private static Search run(final int[] initial, final int[] goal, final int[][] goalPositions,
+                              final boolean useMisplacedTiles, final boolean printProgress,
+                              final SearchBudget budget) {
         final long startTime = System.currentTimeMillis();
-        nodesExplored = 0;
-        boolean solved = false;
+        final Search search = new Search(goal, goalPositions, useMisplacedTiles, budget);
         List<int[]> solutionPath = null;
 
         int threshold = useMisplacedTiles
                 ? PuzzleState.h1(initial, goal)
                 : PuzzleState.h2(initial, goalPositions);
 
-        final List<int[]> currentPath = new ArrayList<>();
-        currentPath.add(initial);
+        search.currentPath[0] = PuzzleState.pack(initial);
 
-        final Set<String> onCurrentPath = new HashSet<>();
-        onCurrentPath.add(Arrays.toString(initial));
-
-        int iterationCount = 0;
-        while (true) {
-            iterationCount++;
-            final int searchResult = depthLimitedSearch(currentPath, goal, goalPositions,
-                    onCurrentPath, 0, threshold, useMisplacedTiles);
+        // an unsolvable pair has no finite threshold and would deepen forever
+        final boolean solvable = PuzzleState.isSolvable(initial, goal);
+        while (solvable) {
+            search.iterationCount++;
+            final int searchResult = search.depthLimitedSearch(0, threshold);
 
             if (searchResult == SOLUTION_FOUND) {
-                solved = true;
-                solutionPath = new ArrayList<>(currentPath);
+                solutionPath = new ArrayList<>();
+                for (int depth = 0; ; depth++) {
+                    solutionPath.add(PuzzleState.unpack(search.currentPath[depth]));
+                    if (search.currentPath[depth] == search.goal) break;
+                }
                 break;
             }
 
-            if (searchResult == Integer.MAX_VALUE) {
+            if (searchResult == Integer.MAX_VALUE || searchResult == BUDGET_STOPPED) {
                 break;
             }
 
-            System.out.println("  IDA* iteration " + iterationCount
+            if (printProgress) System.out.println("  IDA* iteration " + search.iterationCount
                     + ": threshold:" + threshold + " , next=" + searchResult
-                    + " (states explored so far: " + nodesExplored + ")");
+                    + " (states explored so far: " + search.nodesExplored + ")");
             threshold = searchResult;
         }
 
-        final long timeTakenInMs = System.currentTimeMillis() - startTime;
-
-        PuzzleState.printResult(heuristicName,
-                solved, solutionPath, nodesExplored, timeTakenInMs, printTrace);
-        System.out.println("Total IDA* iterations: " + iterationCount + "\n");
+        search.result = SearchResult.of(solutionPath, budget, search.nodesExplored, startTime);
+        return search;
     }
 
     /**
@@ -0,0 +1,120 @@
+import java.util.*;
+
+/**
+ * IndexedStateHeap - Binary min-heap of packed states that holds at most one entry per state.
+ * Entries are ordered by f, then by h (closer to the goal first). The heap position of every state is indexed,
+ * so a cheaper path to a state already in the frontier lowers its key in place instead of adding a duplicate.
+ */
+public class IndexedStateHeap {
+
+    private long[] states = new long[64];
+    private int[] totalCosts = new int[64];
+    private int[] heuristicValues = new int[64];
+    private final Map<Long, Integer> positionOf = new HashMap<>();
+    private int size;
+    private int peakSize;
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPeakSize() {
+        return peakSize;
+    }
+
+    public boolean contains(final long state) {
+        return positionOf.containsKey(state);
+    }
+
+    /**
+     * Insert a state, or lower its key if it is already queued with a higher f.
+     */
+    public void insertOrDecrease(final long state, final int totalCost, final int heuristicValue) {
+        final Integer position = positionOf.get(state);
+        if (position != null) {
+            if (!isBefore(totalCost, heuristicValue, position)) return;
+            totalCosts[position] = totalCost;
+            heuristicValues[position] = heuristicValue;
+            siftUp(position);
+            return;
+        }
+        if (size == states.length) {
+            states = Arrays.copyOf(states, size * 2);
+            totalCosts = Arrays.copyOf(totalCosts, size * 2);
+            heuristicValues = Arrays.copyOf(heuristicValues, size * 2);
+        }
+        states[size] = state;
+        totalCosts[size] = totalCost;
+        heuristicValues[size] = heuristicValue;
+        positionOf.put(state, size);
+        size++;
+        peakSize = Math.max(peakSize, size);
+        siftUp(size - 1);
+    }
+
+    /**
+     * Remove and return the state with the lowest f.
+     */
+    public long pollMin() {
+        final long min = states[0];
+        positionOf.remove(min);
+        size--;
+        if (size > 0) {
+            moveTo(size, 0);
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private boolean isBefore(final int totalCost, final int heuristicValue, final int position) {
+        return isBefore(totalCost, heuristicValue, totalCosts[position], heuristicValues[position]);
+    }
+
+    private void siftUp(int position) {
+        final long state = states[position];
+        final int totalCost = totalCosts[position];
+        final int heuristicValue = heuristicValues[position];
+        while (position > 0) {
+            final int parent = (position - 1) / 2;
+            if (!isBefore(totalCost, heuristicValue, parent)) break;
+            moveTo(parent, position);
+            position = parent;
+        }
+        place(state, totalCost, heuristicValue, position);
+    }
+
+    private void siftDown(int position) {
+        final long state = states[position];
+        final int totalCost = totalCosts[position];
+        final int heuristicValue = heuristicValues[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) break;
+            if (child + 1 < size && isBefore(totalCosts[child + 1], heuristicValues[child + 1], child)) child++;
+            if (!isBefore(totalCosts[child], heuristicValues[child], totalCost, heuristicValue)) break;
+            moveTo(child, position);
+            position = child;
+        }
+        place(state, totalCost, heuristicValue, position);
+    }
+
+    private static boolean isBefore(final int totalCost, final int heuristicValue,
+                                    final int otherTotalCost, final int otherHeuristicValue) {
+        return totalCost != otherTotalCost ? totalCost < otherTotalCost : heuristicValue < otherHeuristicValue;
+    }
+
+    private void moveTo(final int from, final int to) {
+        place(states[from], totalCosts[from], heuristicValues[from], to);
+    }
+
+    private void place(final long state, final int totalCost, final int heuristicValue, final int position) {
+        states[position] = state;
+        totalCosts[position] = totalCost;
+        heuristicValues[position] = heuristicValue;
+        positionOf.put(state, position);
+    }
+}
@@ -1,4 +1,10 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * ManuscriptSorter - Master runner for all search algorithms.
@@ -13,6 +19,46 @@ public class ManuscriptSorter {
         System.out.println("$".repeat(60)+"\n");
 
         final String logTrace = args.length > 1 ? args[1] : "no";
+        // java ManuscriptSorter input.txt no [cache [cacheFile]] [timeout=ms] [nodes=n] [memory=mb]
+        //                       [solvers=a,b | race=a,b | race-any=a,b]
+        // "cache" shares solved pairs between algorithms' repeats and runs; the key=value options bound every search
+        // solvers= runs only the named solvers (see SolverRegistry); race= and race-any= run them concurrently
+        boolean useCache = false;
+        Path cacheFile = null;
+        String selectedSolvers = null;
+        String raceMode = null;
+        for (int k = 2; k < args.length; k++) {
+            final String option = args[k].toLowerCase();
+            if ("cache".equals(option)) {
+                useCache = true;
+                // the cache file, if any, must directly follow "cache"
+                if (k + 1 < args.length && !args[k + 1].contains("=")) cacheFile = Paths.get(args[++k]);
+            } else if (option.startsWith("solvers=") || option.startsWith("race=") || option.startsWith("race-any=")) {
+                raceMode = option.startsWith("solvers=") ? null : option.substring(0, option.indexOf('='));
+                selectedSolvers = option.substring(option.indexOf('=') + 1);
+            } else if (!isBudgetOption(args[k])) {
+                System.err.println("Unknown option: " + args[k]);
+                printUsage();
+                return;
+            }
+        }
+
+        if (selectedSolvers != null) {
+            final List<Solver> solvers;
+            try {
+                solvers = SolverRegistry.select(selectedSolvers);
+            } catch (IllegalArgumentException exception) {
+                System.err.println(exception.getMessage());
+                printUsage();
+                return;
+            }
+            runSelected(inputFile, "yes".equalsIgnoreCase(logTrace) || "y".equalsIgnoreCase(logTrace),
+                    solvers, raceMode);
+            return;
+        }
+
+        final SolutionCache cache = useCache ? SolutionCache.enable(SolutionCache.DEFAULT_CAPACITY) : null;
+        if (cache != null && cacheFile != null) cache.load(cacheFile);
 
         // Execute each algorithm's main method
         System.out.println("*".repeat(60));
@@ -21,6 +67,7 @@ public class ManuscriptSorter {
         System.out.println();
         BFSSearch.main(new String[]{inputFile,logTrace});
         DFSSearch.main(new String[]{inputFile,logTrace});
+        DFSSearch.main(new String[]{inputFile,logTrace,"iddfs"});
 
         System.out.println("*".repeat(60));
         System.out.println("*  SECTION 2B: INFORMED SEARCH");
@@ -28,13 +75,18 @@ public class ManuscriptSorter {
         System.out.println();
         GreedyBestFirstSearch.main(new String[]{inputFile,logTrace});
         AStarSearch.main(new String[]{inputFile,logTrace});
+        ParallelAStarSearch.main(new String[]{inputFile,logTrace});
+        ARAStarSearch.main(new String[]{inputFile,logTrace});
 
         System.out.println("*".repeat(60));
         System.out.println("*  SECTION 2C: MEMORY-BOUNDED & LOCAL SEARCH");
         System.out.println("*".repeat(60));
         System.out.println();
         IDAStarSearch.main(new String[]{inputFile,logTrace});
+        RBFSSearch.main(new String[]{inputFile,logTrace});
+        SMAStarSearch.main(new String[]{inputFile,logTrace});
         SimulatedAnnealingSearch.main(new String[]{inputFile,logTrace});
+        ParallelTemperingSearch.main(new String[]{inputFile,logTrace});
 
         System.out.println("*".repeat(60));
         System.out.println("*  SECTION 2D: ADVERSARIAL SEARCH");
@@ -42,5 +94,79 @@ public class ManuscriptSorter {
         System.out.println();
         AdversarialSearch.main(new String[]{inputFile,logTrace});
 
+        if (cache != null) {
+            if (cacheFile != null) cache.save(cacheFile);
+            cache.printStatistics();
+        }
+
+    }
+
+    private static boolean isBudgetOption(final String option) {
+        try {
+            return SearchBudget.applyDefaultOption(option);
+        } catch (NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: java ManuscriptSorter <input> [yes|no] [cache [cacheFile]] [timeout=ms] [nodes=n]"
+                + " [memory=mb] [solvers=a,b | race=a,b | race-any=a,b]");
+        System.err.println("Solvers: " + SolverRegistry.all().stream()
+                .map(Solver::name)
+                .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Parse the input once and run the selected solvers on every pair: one after another, or as a race
+     * ("race" keeps the first optimal answer, "race-any" the first answer of any solver).
+     */
+    private static void runSelected(final String inputFile, final boolean printTrace, final List<Solver> solvers,
+                                    final String raceMode) throws InterruptedException {
+        final List<int[][]> puzzles = PuzzleState.readInputMultipleLines(inputFile);
+        if (puzzles.isEmpty() || solvers.isEmpty()) return;
+
+        System.out.println("*".repeat(60));
+        System.out.println("*  " + (raceMode == null ? "SELECTED SOLVERS" : "RACE (" + raceMode + ")") + ": "
+                + solvers);
+        System.out.println("*".repeat(60));
+        System.out.println();
+
+        final AtomicInteger testCaseNumber = new AtomicInteger(1);
+        for (final int[][] puzzle : puzzles) {
+            System.out.println("######################### Start of Test Case - " + testCaseNumber + " #########################");
+            testCaseNumber.getAndIncrement();
+            System.out.println("Start State: " + PuzzleState.stateToString(puzzle[0]));
+            System.out.println("Goal  State: " + PuzzleState.stateToString(puzzle[1]));
+
+            if (raceMode == null) {
+                for (final Solver solver : solvers) {
+                    solver.solve(puzzle[0], puzzle[1], SearchBudget.start()).print(solver.name(), printTrace);
+                    System.out.println();
+                }
+            } else {
+                final SolverRace.Outcome outcome = SolverRace.race(solvers, puzzle[0], puzzle[1],
+                        "race".equals(raceMode));
+                if (outcome.winner == null) {
+                    System.out.println("No solver answered within its budget.");
+                } else {
+                    outcome.result.print("winner " + outcome.winner.name()
+                            + (outcome.winner.isOptimal() ? " (optimal)" : ""), printTrace);
+                }
+                System.out.println("Race decided in " + outcome.timeTakenInMs + " ms");
+                for (final Solver solver : solvers) {
+                    final SearchResult result = outcome.results.get(solver);
+                    if (result == null) {
+                        System.out.printf("  %-12s cancelled%n", solver.name());
+                        continue;
+                    }
+                    System.out.printf("  %-12s %-16s %9d states %7d ms%s%n", solver.name(), result.status,
+                            result.nodesExplored, result.timeTakenInMs,
+                            result.isSolved() ? ", " + (result.solutionPath.size() - 1) + " moves" : "");
+                }
+                System.out.println();
+            }
+            System.out.println("######################### END #########################");
+        }
     }
 }
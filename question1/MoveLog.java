@@ -0,0 +1,152 @@
+import java.util.*;
+
+/**
+ * Compact record of the moves taken by a local search: 2 bits per move (the DR/DC direction index),
+ * 32 moves per long. A move that undoes the previous one is cancelled at once. A log created with its
+ * start state also cuts every cycle each time COMPACT_INTERVAL more moves have been kept; a loop-free path
+ * visits each of the 9!/2 reachable states at most once, so such a log never holds more than
+ * 181440 + COMPACT_INTERVAL moves however long the run. eliminateLoops() cuts the remaining cycles at the end.
+ */
+public class MoveLog {
+
+    private static final int BITS_PER_MOVE = 2;
+    private static final int MOVES_PER_WORD = Long.SIZE / BITS_PER_MOVE;
+    private static final long MOVE_MASK = 0b11L;
+    private static final int INITIAL_WORDS = 4;
+    // kept moves between two loop compactions (64 KB of log)
+    private static final int COMPACT_INTERVAL = 1 << 18;
+
+    private long[] words = new long[INITIAL_WORDS];
+    private int size;
+    private long movesRecorded;
+    // start state for loop compaction; without one the log only cancels reversals
+    private final boolean compacting;
+    private final long start;
+    private int compactAt = COMPACT_INTERVAL;
+
+    public MoveLog() {
+        this.compacting = false;
+        this.start = 0L;
+    }
+
+    /**
+     * A log of the moves made from start, compacted every COMPACT_INTERVAL kept moves.
+     */
+    public MoveLog(final long start) {
+        this.compacting = true;
+        this.start = start;
+    }
+
+    /**
+     * Up/Down and Left/Right are adjacent in DR/DC, so the opposite direction differs in the low bit.
+     */
+    static int opposite(final int direction) {
+        return direction ^ 1;
+    }
+
+    /**
+     * Record a move; if it reverses the last recorded move, the two cancel out.
+     */
+    public void append(final int direction) {
+        movesRecorded++;
+        if (size > 0 && get(size - 1) == opposite(direction)) {
+            size--;
+            return;
+        }
+        push(direction);
+        if (compacting && size == compactAt) compact();
+    }
+
+    /**
+     * Replace the log by its loop-free version; the path still ends in the same state.
+     */
+    private void compact() {
+        final MoveLog loopFree = eliminateLoops(start);
+        words = loopFree.words;
+        size = loopFree.size;
+        compactAt = size + COMPACT_INTERVAL;
+    }
+
+    private void push(final int direction) {
+        if (size == words.length * MOVES_PER_WORD) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        final int word = size / MOVES_PER_WORD;
+        final int shift = (size % MOVES_PER_WORD) * BITS_PER_MOVE;
+        words[word] = (words[word] & ~(MOVE_MASK << shift)) | ((long) direction << shift);
+        size++;
+    }
+
+    public int get(final int index) {
+        return (int) ((words[index / MOVES_PER_WORD] >>> ((index % MOVES_PER_WORD) * BITS_PER_MOVE)) & MOVE_MASK);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Every append() call, including the ones that cancelled out.
+     */
+    public long getMovesRecorded() {
+        return movesRecorded;
+    }
+
+    /**
+     * Apply a move in the given direction to a packed state.
+     */
+    static long applyMove(final long packed, final int direction) {
+        final int blankPos = PuzzleState.blankPosition(packed);
+        final int targetPos = (blankPos / PuzzleState.SIZE + PuzzleState.DR[direction]) * PuzzleState.SIZE
+                + blankPos % PuzzleState.SIZE + PuzzleState.DC[direction];
+        return PuzzleState.slide(packed, blankPos, targetPos);
+    }
+
+    /**
+     * Replay the log from start and drop every cycle: when a state comes back, the moves since its
+     * first visit are removed. The result visits each state at most once.
+     */
+    public MoveLog eliminateLoops(final long start) {
+        final MoveLog loopFree = new MoveLog();
+        final Map<Long, Integer> positionOnPath = new HashMap<>();
+        long[] pathStates = new long[INITIAL_WORDS * MOVES_PER_WORD];
+        pathStates[0] = start;
+        positionOnPath.put(start, 0);
+
+        long current = start;
+        for (int index = 0; index < size; index++) {
+            final int direction = get(index);
+            current = applyMove(current, direction);
+
+            final Integer firstVisit = positionOnPath.get(current);
+            if (firstVisit != null) {
+                for (int position = firstVisit + 1; position <= loopFree.size; position++) {
+                    positionOnPath.remove(pathStates[position]);
+                }
+                loopFree.size = firstVisit;
+                continue;
+            }
+
+            loopFree.push(direction);
+            if (loopFree.size == pathStates.length) pathStates = Arrays.copyOf(pathStates, pathStates.length * 2);
+            pathStates[loopFree.size] = current;
+            positionOnPath.put(current, loopFree.size);
+        }
+        loopFree.movesRecorded = movesRecorded;
+        return loopFree;
+    }
+
+    /**
+     * Expand the log into the list of states from start, for PuzzleState.printResult.
+     */
+    public List<int[]> toPath(final long start) {
+        final List<int[]> path = new ArrayList<>(size + 1);
+        long current = start;
+        path.add(PuzzleState.unpack(current));
+        for (int index = 0; index < size; index++) {
+            current = applyMove(current, get(index));
+            path.add(PuzzleState.unpack(current));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,306 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash-Distributed A* (HDA*) for the Manuscript Sorting Problem.
+ * Each of N threads owns the states whose hash falls in its partition and keeps its own open list and best-g
+ * table. A generated successor owned by another thread is sent to that thread's lock-free inbox.
+ * A goal found by any thread becomes the incumbent, but the search only ends once no thread has an open node
+ * cheaper than the incumbent and no message is in flight, so the path returned is optimal.
+ * A search stopped by its budget returns no path, since its incumbent is not yet proved optimal.
+ */
+public class ParallelAStarSearch {
+
+    private static final long IDLE_PARK_NANOS = 20_000;
+    private static final int IDLE = 1;
+    private static final int ACTIVE = 0;
+
+    /**
+     * A successor on its way to the thread that owns it.
+     */
+    static final class Message {
+        final long state;
+        final int pathCost;
+        final long parent;
+
+        Message(final long state, final int pathCost, final long parent) {
+            this.state = state;
+            this.pathCost = pathCost;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * One hash partition: open list, best g and parent of every state it owns, and its inbox.
+     * Only the owning thread touches the open list and the maps; other threads only add to the inbox.
+     */
+    static final class Partition {
+        final ConcurrentLinkedQueue<Message> inbox = new ConcurrentLinkedQueue<>();
+        final PriorityQueue<AStarSearch.SearchNode> open = new PriorityQueue<>();
+        final Map<Long, Integer> lowestCostTo = new HashMap<>();
+        final Map<Long, Long> parentOf = new HashMap<>();
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
+        long nodesExplored;
+    }
+
+    /**
+     * State shared by the workers of one search.
+     */
+    private static final class Search {
+        final Partition[] partitions;
+        final long goal;
+        final int[] goalArray;
+        final int[][] goalPositions;
+        final boolean useMisplacedTiles;
+        final SearchBudget budget;
+        // states expanded by all workers; each value is seen by one worker, which checks the budget with it
+        final AtomicLong expanded = new AtomicLong();
+        final AtomicInteger incumbent = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicLong messagesSent = new AtomicLong();
+        final AtomicLong messagesProcessed = new AtomicLong();
+        // bumped whenever an idle worker wakes up; lets the termination check spot activity between its reads
+        final AtomicLong activations = new AtomicLong();
+        final AtomicIntegerArray idle;
+        volatile boolean done;
+
+        Search(final int threadCount, final long goal, final int[] goalArray, final int[][] goalPositions,
+               final boolean useMisplacedTiles, final SearchBudget budget) {
+            this.partitions = new Partition[threadCount];
+            for (int k = 0; k < threadCount; k++) partitions[k] = new Partition();
+            this.idle = new AtomicIntegerArray(threadCount);
+            this.goal = goal;
+            this.goalArray = goalArray;
+            this.goalPositions = goalPositions;
+            this.useMisplacedTiles = useMisplacedTiles;
+            this.budget = budget;
+        }
+
+        int ownerOf(final long state) {
+            // Fibonacci hashing spreads neighbouring boards (which differ in two nibbles) across partitions
+            return (int) (((state * 0x9E3779B97F4A7C15L) >>> 32) % partitions.length);
+        }
+
+        int heuristic(final long state) {
+            return useMisplacedTiles
+                    ? PuzzleState.h1(state, goalArray)
+                    : PuzzleState.h2(state, goalPositions);
+        }
+
+        void send(final long state, final int pathCost, final long parent) {
+            messagesSent.incrementAndGet();
+            partitions[ownerOf(state)].inbox.add(new Message(state, pathCost, parent));
+        }
+
+        /**
+         * True once every worker is idle and every message has been processed. Activity is checked before and
+         * after the counters are read; a worker can only become busy by receiving a message, so a quiet window
+         * with matching counters means no work can appear any more.
+         */
+        boolean isQuiescent() {
+            final long activationsBefore = activations.get();
+            if (!allIdle()) return false;
+            final long sent = messagesSent.get();
+            if (messagesProcessed.get() != sent) return false;
+            return allIdle() && activations.get() == activationsBefore;
+        }
+
+        private boolean allIdle() {
+            for (int k = 0; k < idle.length(); k++) {
+                if (idle.get(k) != IDLE) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Worker loop for one partition: drain the inbox, expand the best open node while it can still beat the
+     * incumbent, otherwise mark itself idle and park briefly.
+     */
+    private static Long runWorker(final Search search, final int id) {
+        final Partition partition = search.partitions[id];
+        while (!search.done) {
+            final Message message = partition.inbox.poll();
+            if (message != null) {
+                markActive(search, id);
+                relax(search, partition, message.state, message.pathCost, message.parent);
+                search.messagesProcessed.incrementAndGet();
+                continue;
+            }
+
+            final AStarSearch.SearchNode current = partition.open.peek();
+            if (current == null || current.totalEstimatedCost >= search.incumbent.get()) {
+                search.idle.set(id, IDLE);
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            markActive(search, id);
+            partition.open.poll();
+            if (current.pathCost > partition.lowestCostTo.get(current.state)) continue;
+            partition.nodesExplored++;
+            if (search.budget.isExhausted(search.expanded.incrementAndGet())) {
+                search.done = true;
+                break;
+            }
+
+            if (current.state == search.goal) {
+                search.incumbent.accumulateAndGet(current.pathCost, Math::min);
+                continue;
+            }
+
+            final Long parent = partition.parentOf.get(current.state);
+            final int successorCount = PuzzleState.expand(current.state, partition.successors);
+            for (int k = 0; k < successorCount; k++) {
+                final long successor = partition.successors[k];
+                if (parent != null && successor == parent) continue;
+                if (search.ownerOf(successor) == id) {
+                    relax(search, partition, successor, current.pathCost + 1, current.state);
+                } else {
+                    search.send(successor, current.pathCost + 1, current.state);
+                }
+            }
+        }
+        return partition.nodesExplored;
+    }
+
+    private static void markActive(final Search search, final int id) {
+        if (search.idle.get(id) == IDLE) {
+            search.activations.incrementAndGet();
+            search.idle.set(id, ACTIVE);
+        }
+    }
+
+    /**
+     * Record a cheaper path to a state this partition owns and queue it.
+     */
+    private static void relax(final Search search, final Partition partition, final long state, final int pathCost,
+                              final Long parent) {
+        if (pathCost >= partition.lowestCostTo.getOrDefault(state, Integer.MAX_VALUE)) return;
+        partition.lowestCostTo.put(state, pathCost);
+        partition.parentOf.put(state, parent);
+        partition.open.add(new AStarSearch.SearchNode(state, pathCost, search.heuristic(state)));
+    }
+
+    /**
+     * Solve the puzzle using HDA* with the specified heuristic.
+     *
+     * @param useMisplacedTiles true = h1 (misplaced tiles), false = h2 (Manhattan distance)
+     */
+    static void solve(final int[] initial, final int[] goal, final int[][] goalPositions,
+                      final boolean useMisplacedTiles, final int threadCount, final boolean printTrace) {
+        final String heuristicName = useMisplacedTiles ? "h1 - Misplaced Tiles" : "h2 - Manhattan Distance";
+        final long[] nodesPerThread = new long[threadCount];
+        final long[] messagesSent = new long[1];
+        final SearchResult result = search(initial, goal, goalPositions, useMisplacedTiles, threadCount,
+                SearchBudget.start(), nodesPerThread, messagesSent);
+        result.print(heuristicName + ", " + threadCount + " threads", printTrace);
+        System.out.println("States expanded per thread: " + Arrays.toString(nodesPerThread)
+                + ", messages sent: " + messagesSent[0] + "\n");
+    }
+
+    /**
+     * HDA* with one thread per available processor.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final int[][] goalPositions,
+                               final boolean useMisplacedTiles, final SearchBudget budget) {
+        final int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+        return search(initial, goal, goalPositions, useMisplacedTiles, threadCount, budget,
+                new long[threadCount], new long[1]);
+    }
+
+    /**
+     * HDA* from initial to goal within the budget. Fills nodesPerThread and messagesSent[0] for reporting.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final int[][] goalPositions,
+                               final boolean useMisplacedTiles, final int threadCount, final SearchBudget budget,
+                               final long[] nodesPerThread, final long[] messagesSent) {
+        final long startTime = System.currentTimeMillis();
+        final Search search = new Search(threadCount, PuzzleState.pack(goal), goal, goalPositions,
+                useMisplacedTiles, budget);
+
+        // unsolvable pairs would make every partition exhaust its share of the state space
+        if (PuzzleState.isSolvable(initial, goal)) {
+            final long initialPacked = PuzzleState.pack(initial);
+            relax(search, search.partitions[search.ownerOf(initialPacked)], initialPacked, 0, null);
+
+            final ExecutorService workers = Executors.newFixedThreadPool(threadCount);
+            final List<Future<Long>> explored = new ArrayList<>();
+            for (int k = 0; k < threadCount; k++) {
+                final int id = k;
+                explored.add(workers.submit(() -> runWorker(search, id)));
+            }
+            try {
+                while (!search.done && !search.isQuiescent()) LockSupport.parkNanos(IDLE_PARK_NANOS);
+                search.done = true;
+                for (int k = 0; k < threadCount; k++) nodesPerThread[k] = explored.get(k).get();
+            } catch (InterruptedException | ExecutionException exception) {
+                Thread.currentThread().interrupt();
+                System.out.println("Parallel A* interrupted: " + exception.getMessage());
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+        messagesSent[0] = search.messagesSent.get();
+
+        List<int[]> solutionPath = null;
+        if (search.incumbent.get() != Integer.MAX_VALUE && budget.stopStatus() == null) {
+            solutionPath = new ArrayList<>();
+            final long initialPacked = PuzzleState.pack(initial);
+            long state = search.goal;
+            while (true) {
+                solutionPath.add(PuzzleState.unpack(state));
+                if (state == initialPacked) break;
+                state = search.partitions[search.ownerOf(state)].parentOf.get(state);
+            }
+            Collections.reverse(solutionPath);
+        }
+
+        final long nodesExplored = Arrays.stream(nodesPerThread).sum();
+        return SearchResult.of(solutionPath, budget, (int) Math.min(nodesExplored, Integer.MAX_VALUE), startTime);
+    }
+
+    /**
+     * Solve each puzzle with both heuristics and print results.
+     */
+    private static void solveWithBothHeuristics(final int[][] puzzle, final int threadCount,
+                                                final boolean printTrace) {
+        final int[] initial = puzzle[0];
+        final int[] goal = puzzle[1];
+        final int[][] goalPositions = PuzzleState.goalPosition(goal);
+
+        System.out.println("Start State: " + PuzzleState.stateToString(initial));
+        System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
+
+        solve(initial, goal, goalPositions, true, threadCount, printTrace);
+        solve(initial, goal, goalPositions, false, threadCount, printTrace);
+    }
+
+    /**
+     * java ParallelAStarSearch input.txt [yes|no] [threads]
+     */
+    public static void main(final String[] args) {
+        final String inputFile = args.length > 0 ? args[0] : "resource/input.txt";
+        final List<int[][]> puzzles = PuzzleState.readInputMultipleLines(inputFile);
+
+        if (puzzles.isEmpty()) return;
+
+        final boolean printTrace= args.length > 1 && ("y".equalsIgnoreCase(args[1]) || "yes".equalsIgnoreCase(args[1]));
+        final int threadCount = args.length > 2
+                ? Integer.parseInt(args[2])
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        System.out.println("============================================\n Hash-Distributed A* (HDA*) \n============================================");
+
+        final AtomicInteger testCaseNumber= new AtomicInteger(1);
+
+        puzzles.forEach(puzzle -> {
+            System.out.println("######################### Start of Test Case - "+testCaseNumber +" #########################");
+            testCaseNumber.getAndIncrement();
+            solveWithBothHeuristics(puzzle, threadCount, printTrace);
+            System.out.println("######################### END #########################");
+        });
+    }
+}
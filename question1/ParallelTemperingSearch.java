@@ -0,0 +1,264 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parallel Tempering (replica-exchange simulated annealing) for the Manuscript Sorting Problem.
+ * K chains run at fixed temperatures on their own threads. Every SWAP_INTERVAL steps the chains
+ * meet at a barrier and adjacent temperatures exchange states with the Metropolis swap probability,
+ * so the hot chains keep exploring while the cold chains descend. All chains stop as soon as any
+ * one of them reaches h2 = 0.
+ */
+public class ParallelTemperingSearch {
+
+    private static final double COLDEST_TEMPERATURE = 0.3;
+    private static final double HOTTEST_TEMPERATURE = 5.0;
+    private static final int ITERATION_LIMIT = 500000;
+    private static final int SWAP_INTERVAL = 500;
+    private static final long RANDOM_SEED = 42;
+    private static final int NO_CHAIN = -1;
+
+    /**
+     * One replica: a fixed temperature plus the state currently held at that temperature.
+     * The state and its path move between chains on a swap; the temperature stays.
+     */
+    static final class Chain {
+        final double temperature;
+        final SplittableRandom rng;
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
+        long state;
+        int distance;
+        // every path starts at the initial state, so paths stay valid when chains swap them
+        MoveLog path;
+
+        Chain(final double temperature, final SplittableRandom rng, final long state, final int distance) {
+            this.temperature = temperature;
+            this.rng = rng;
+            this.state = state;
+            this.distance = distance;
+            this.path = new MoveLog(state);
+        }
+
+        void exchangeWith(final Chain other) {
+            final long swappedState = state;
+            final int swappedDistance = distance;
+            final MoveLog swappedPath = path;
+            state = other.state;
+            distance = other.distance;
+            path = other.path;
+            other.state = swappedState;
+            other.distance = swappedDistance;
+            other.path = swappedPath;
+        }
+    }
+
+    /**
+     * Geometric temperature ladder from hottest (chain 0) to coldest (chain K-1).
+     */
+    static double[] temperatureLadder(final int chainCount) {
+        final double[] temperatures = new double[chainCount];
+        for (int k = 0; k < chainCount; k++) {
+            final double fraction = chainCount == 1 ? 1.0 : (double) k / (chainCount - 1);
+            temperatures[k] = HOTTEST_TEMPERATURE * Math.pow(COLDEST_TEMPERATURE / HOTTEST_TEMPERATURE, fraction);
+        }
+        return temperatures;
+    }
+
+    /**
+     * Solve a single puzzle with K replicas and print the results.
+     */
+    private static void solveAndPrint(final int[][] puzzle, final int chainCount, final boolean printTrace) {
+        final int[] initial = puzzle[0];
+        final int[] goal = puzzle[1];
+        final int[][] goalPositions = PuzzleState.goalPosition(goal);
+
+        System.out.println("Start State: " + PuzzleState.stateToString(initial));
+        System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
+
+        final double[] temperatures = temperatureLadder(chainCount);
+        System.out.println("Replica Ladder:");
+        System.out.println("  Chains        = " + chainCount);
+        System.out.println("  Temperatures  = " + Arrays.toString(Arrays.stream(temperatures)
+                .mapToObj(t -> String.format("%.3f", t)).toArray()));
+        System.out.println("  Swap interval = " + SWAP_INTERVAL);
+        System.out.println("  Iteration limit per chain = " + ITERATION_LIMIT);
+
+        final long startTime = System.currentTimeMillis();
+        final Tempering run = temper(PuzzleState.pack(initial), goalPositions, chainCount, SearchBudget.start());
+        final SearchResult result = run.toResult(PuzzleState.isSolvable(initial, goal), startTime);
+
+        System.out.println();
+        result.print("h2 - Manhattan Distance", printTrace);
+
+        final Chain closest = Arrays.stream(run.chains).min(Comparator.comparingInt(chain -> chain.distance)).orElseThrow();
+        if (result.isSolved()) {
+            System.out.printf("Solved by chain  : %d (T=%.3f)%n", run.winner, run.chains[run.winner].temperature);
+        }
+        System.out.printf("Replica swaps    : %d accepted of %d attempted%n", run.swapCounts[1], run.swapCounts[0]);
+        System.out.println("Best h2 achieved : " + closest.distance);
+        if (!result.isSolved()) {
+            System.out.println("Best state found (not goal):");
+            System.out.print(PuzzleState.stateToGrid(PuzzleState.unpack(closest.state)));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Parallel tempering from initial to goal with one chain per available processor, within the budget.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final SearchBudget budget) {
+        final long startTime = System.currentTimeMillis();
+        final int chainCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+        return temper(PuzzleState.pack(initial), PuzzleState.goalPosition(goal), chainCount, budget)
+                .toResult(PuzzleState.isSolvable(initial, goal), startTime);
+    }
+
+    /**
+     * Outcome of one parallel tempering run.
+     */
+    private static final class Tempering {
+        final long initial;
+        final Chain[] chains;
+        final SearchBudget budget;
+        final int[] swapCounts = new int[2]; // attempted, accepted
+        int winner = NO_CHAIN;
+        long nodesExplored;
+
+        Tempering(final long initial, final Chain[] chains, final SearchBudget budget) {
+            this.initial = initial;
+            this.chains = chains;
+            this.budget = budget;
+        }
+
+        /**
+         * Running out of iterations proves nothing, so a solvable pair without a path is GAVE_UP.
+         */
+        SearchResult toResult(final boolean solvable, final long startTime) {
+            final List<int[]> solutionPath = winner != NO_CHAIN
+                    ? chains[winner].path.eliminateLoops(initial).toPath(initial)
+                    : null;
+            return SearchResult.ofIncomplete(solutionPath, solvable, budget,
+                    (int) Math.min(nodesExplored, Integer.MAX_VALUE), startTime);
+        }
+    }
+
+    /**
+     * Run K chains until one reaches the goal, the iteration limit is hit or the budget is exhausted.
+     * The budget is checked once per swap round, against the steps taken by all chains.
+     */
+    private static Tempering temper(final long initialPacked, final int[][] goalPositions, final int chainCount,
+                                    final SearchBudget budget) {
+        final double[] temperatures = temperatureLadder(chainCount);
+        final int initialDistance = PuzzleState.h2(initialPacked, goalPositions);
+
+        final SplittableRandom rootRandom = new SplittableRandom(RANDOM_SEED);
+        final Chain[] chains = new Chain[chainCount];
+        for (int k = 0; k < chainCount; k++) {
+            chains[k] = new Chain(temperatures[k], rootRandom.split(), initialPacked, initialDistance);
+        }
+        final SplittableRandom swapRandom = rootRandom.split();
+        final Tempering run = new Tempering(initialPacked, chains, budget);
+
+        final AtomicInteger solvedByChain = new AtomicInteger(initialDistance == 0 ? 0 : NO_CHAIN);
+        final AtomicLong stepsTaken = new AtomicLong();
+        final int[] completedRounds = new int[1];
+        final boolean[] stop = new boolean[]{initialDistance == 0};
+
+        // Runs once per round on the last thread to arrive, while every chain is parked
+        final CyclicBarrier barrier = new CyclicBarrier(chainCount, () -> {
+            completedRounds[0]++;
+            if (solvedByChain.get() != NO_CHAIN || (long) completedRounds[0] * SWAP_INTERVAL >= ITERATION_LIMIT
+                    || budget.isExhaustedNow(stepsTaken.get())) {
+                stop[0] = true;
+                return;
+            }
+            for (int k = completedRounds[0] % 2; k + 1 < chainCount; k += 2) {
+                final Chain hotter = chains[k];
+                final Chain colder = chains[k + 1];
+                final double exponent = (1.0 / colder.temperature - 1.0 / hotter.temperature)
+                        * (colder.distance - hotter.distance);
+                run.swapCounts[0]++;
+                if (exponent >= 0 || swapRandom.nextDouble() < Math.exp(exponent)) {
+                    hotter.exchangeWith(colder);
+                    run.swapCounts[1]++;
+                }
+            }
+        });
+
+        final ExecutorService workers = Executors.newFixedThreadPool(chainCount);
+        final List<Future<Long>> stepsPerChain = new ArrayList<>();
+        for (int k = 0; k < chainCount; k++) {
+            final int chainIndex = k;
+            stepsPerChain.add(workers.submit(() -> runChain(chains, chainIndex, goalPositions,
+                    solvedByChain, stepsTaken, barrier, stop)));
+        }
+
+        try {
+            for (final Future<Long> steps : stepsPerChain) run.nodesExplored += steps.get();
+        } catch (InterruptedException | ExecutionException exception) {
+            Thread.currentThread().interrupt();
+            System.out.println("Parallel tempering interrupted: " + exception.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+        run.winner = solvedByChain.get();
+        return run;
+    }
+
+    /**
+     * Metropolis steps for one chain, SWAP_INTERVAL at a time, until the barrier action says stop.
+     * Returns the number of steps this thread took.
+     */
+    private static long runChain(final Chain[] chains, final int chainIndex, final int[][] goalPositions,
+                                 final AtomicInteger solvedByChain, final AtomicLong stepsTaken,
+                                 final CyclicBarrier barrier,
+                                 final boolean[] stop) throws InterruptedException, BrokenBarrierException {
+        final Chain chain = chains[chainIndex];
+        long steps = 0;
+        while (!stop[0]) {
+            final long stepsBefore = steps;
+            for (int step = 0; step < SWAP_INTERVAL && solvedByChain.get() == NO_CHAIN; step++) {
+                steps++;
+                final int successorCount = PuzzleState.expand(chain.state, chain.successors);
+                final int choice = chain.rng.nextInt(successorCount);
+                final long candidate = chain.successors[choice];
+                final int candidateDistance = PuzzleState.h2(candidate, goalPositions);
+                final int costDifference = candidateDistance - chain.distance;
+
+                if (costDifference < 0 || chain.rng.nextDouble() < Math.exp(-costDifference / chain.temperature)) {
+                    chain.path.append(PuzzleState.MOVE_DIRECTIONS[PuzzleState.blankPosition(chain.state)][choice]);
+                    chain.state = candidate;
+                    chain.distance = candidateDistance;
+                    if (candidateDistance == 0) {
+                        solvedByChain.compareAndSet(NO_CHAIN, chainIndex);
+                        break;
+                    }
+                }
+            }
+            stepsTaken.addAndGet(steps - stepsBefore);
+            barrier.await();
+        }
+        return steps;
+    }
+
+    public static void main(final String[] args) {
+        final String inputFile = args.length > 0 ? args[0] : "resource/input.txt";
+        final List<int[][]> puzzles = PuzzleState.readInputMultipleLines(inputFile);
+
+        if (puzzles.isEmpty()) return;
+        System.out.println("============================================\n Parallel Tempering (Replica Exchange) \n============================================");
+        final boolean printTrace= args.length > 1 && ("y".equalsIgnoreCase(args[1]) || "yes".equalsIgnoreCase(args[1]));
+        final int chainCount = args.length > 2
+                ? Integer.parseInt(args[2])
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        AtomicInteger i= new AtomicInteger(1);
+        puzzles.forEach(puzzle -> {
+            System.out.println("######################### Start of Test Case - "+i +" #########################");
+            i.getAndIncrement();
+            solveAndPrint(puzzle, chainCount, printTrace);
+            System.out.println("######################### END #########################");
+        });
+    }
+}
@@ -18,6 +18,35 @@ public class PuzzleState {
     public static final int[] DC = {0, 0, -1, 1};
     public static final String[] DIR_NAMES = {"Up", "Down", "Left", "Right"};
 
+    // Packed states hold one 4-bit tile per board position (position i in bits 4i..4i+3)
+    public static final int BITS_PER_TILE = 4;
+    private static final long TILE_MASK = 0xFL;
+    public static final int MAX_NEIGHBORS = 4;
+
+    // MOVE_TARGETS[blank] = positions the blank can slide to, in DR/DC direction order;
+    // MOVE_DIRECTIONS[blank] holds the matching direction indices
+    public static final int[][] MOVE_TARGETS = new int[TILE_COUNT][];
+    public static final int[][] MOVE_DIRECTIONS = new int[TILE_COUNT][];
+
+    static {
+        for (int blankPos = 0; blankPos < TILE_COUNT; blankPos++) {
+            final int[] targets = new int[MAX_NEIGHBORS];
+            final int[] directions = new int[MAX_NEIGHBORS];
+            int count = 0;
+            for (int dir = 0; dir < MAX_NEIGHBORS; dir++) {
+                final int newRow = blankPos / SIZE + DR[dir];
+                final int newCol = blankPos % SIZE + DC[dir];
+                if (newRow >= 0 && newRow < SIZE && newCol >= 0 && newCol < SIZE) {
+                    targets[count] = newRow * SIZE + newCol;
+                    directions[count] = dir;
+                    count++;
+                }
+            }
+            MOVE_TARGETS[blankPos] = Arrays.copyOf(targets, count);
+            MOVE_DIRECTIONS[blankPos] = Arrays.copyOf(directions, count);
+        }
+    }
+
     /**
      * Build a lookup table mapping each tile value to its (row, col) in the goal state.
      */
@@ -137,6 +166,26 @@ public class PuzzleState {
         return Arrays.equals(state, goal);
     }
 
+    /**
+     * Whether goal is reachable from start. Tiles are compared in goal order: for odd board widths the
+     * inversion parities must match; for even widths the blank row difference joins the parity.
+     */
+    public static boolean isSolvable(final int[] start, final int[] goal) {
+        final int[] goalIndex = new int[TILE_COUNT];
+        for (int i = 0; i < TILE_COUNT; i++) goalIndex[goal[i]] = i;
+
+        int inversions = 0;
+        for (int i = 0; i < TILE_COUNT; i++) {
+            if (start[i] == BLANK) continue;
+            for (int j = i + 1; j < TILE_COUNT; j++) {
+                if (start[j] != BLANK && goalIndex[start[i]] > goalIndex[start[j]]) inversions++;
+            }
+        }
+        if (SIZE % 2 == 1) return inversions % 2 == 0;
+        final int blankRowDistance = Math.abs(findBlank(start) / SIZE - findBlank(goal) / SIZE);
+        return (inversions + blankRowDistance) % 2 == 0;
+    }
+
     /**
      * Create a new state by swapping tiles at two positions.
      */
@@ -153,20 +202,98 @@ public class PuzzleState {
      */
     public static List<int[]> getNeighbors(final int[] state) {
         final int blankPos = findBlank(state);
-        final int blankRow = blankPos / SIZE;
-        final int blankCol = blankPos % SIZE;
+        final int[] targets = MOVE_TARGETS[blankPos];
+        final List<int[]> neighbors = new ArrayList<>(targets.length);
+        for (final int targetPos : targets) {
+            neighbors.add(swap(state, blankPos, targetPos));
+        }
+        return neighbors;
+    }
 
-        return IntStream.range(0, 4)
-                .filter(dir -> {
-                    final int newRow = blankRow + DR[dir];
-                    final int newCol = blankCol + DC[dir];
-                    return newRow >= 0 && newRow < SIZE && newCol >= 0 && newCol < SIZE;
-                })
-                .mapToObj(dir -> {
-                    final int targetPos = (blankRow + DR[dir]) * SIZE + (blankCol + DC[dir]);
-                    return swap(state, blankPos, targetPos);
-                })
-                .collect(Collectors.toList());
+    /**
+     * Pack a state into a long, 4 bits per tile.
+     */
+    public static long pack(final int[] state) {
+        long packed = 0L;
+        for (int i = 0; i < TILE_COUNT; i++) {
+            packed |= ((long) state[i]) << (i * BITS_PER_TILE);
+        }
+        return packed;
+    }
+
+    /**
+     * Unpack a packed state into a caller-owned array.
+     */
+    public static int[] unpackInto(final long packed, final int[] state) {
+        for (int i = 0; i < TILE_COUNT; i++) {
+            state[i] = tileAt(packed, i);
+        }
+        return state;
+    }
+
+    public static int[] unpack(final long packed) {
+        return unpackInto(packed, new int[TILE_COUNT]);
+    }
+
+    public static int tileAt(final long packed, final int position) {
+        return (int) ((packed >>> (position * BITS_PER_TILE)) & TILE_MASK);
+    }
+
+    /**
+     * Position of the blank in a packed state.
+     */
+    public static int blankPosition(final long packed) {
+        for (int i = 0; i < TILE_COUNT; i++) {
+            if (tileAt(packed, i) == BLANK) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Slide the tile at targetPos into the blank at blankPos. The blank nibble is zero,
+     * so the move is one mask and one or on the packed value.
+     */
+    public static long slide(final long packed, final int blankPos, final int targetPos) {
+        final long tile = (packed >>> (targetPos * BITS_PER_TILE)) & TILE_MASK;
+        return (packed & ~(TILE_MASK << (targetPos * BITS_PER_TILE))) | (tile << (blankPos * BITS_PER_TILE));
+    }
+
+    /**
+     * Write every successor of a packed state into the caller's buffer (length >= MAX_NEIGHBORS)
+     * and return how many were written. Successor k moves the blank in direction MOVE_DIRECTIONS[blank][k].
+     */
+    public static int expand(final long packed, final long[] successors) {
+        final int blankPos = blankPosition(packed);
+        final int[] targets = MOVE_TARGETS[blankPos];
+        for (int k = 0; k < targets.length; k++) {
+            successors[k] = slide(packed, blankPos, targets[k]);
+        }
+        return targets.length;
+    }
+
+    /**
+     * h1 on a packed state.
+     */
+    public static int h1(final long packed, final int[] goal) {
+        int misplaced = 0;
+        for (int i = 0; i < TILE_COUNT; i++) {
+            final int tile = tileAt(packed, i);
+            if (tile != BLANK && tile != goal[i]) misplaced++;
+        }
+        return misplaced;
+    }
+
+    /**
+     * h2 on a packed state.
+     */
+    public static int h2(final long packed, final int[][] goalPositions) {
+        int distance = 0;
+        for (int i = 0; i < TILE_COUNT; i++) {
+            final int tile = tileAt(packed, i);
+            if (tile == BLANK) continue;
+            distance += Math.abs(i / SIZE - goalPositions[tile][0]) + Math.abs(i % SIZE - goalPositions[tile][1]);
+        }
+        return distance;
     }
 
     /**
@@ -226,6 +353,20 @@ public class PuzzleState {
         return solutionPath;
     }
 
+    /**
+     * Reconstruct path from a packed parent chain (the start maps to null).
+     */
+    public static List<int[]> reconstructPath(final Map<Long, Long> parentOf, final long goalState) {
+        final List<int[]> solutionPath = new ArrayList<>();
+        Long key = goalState;
+        while (key != null) {
+            solutionPath.add(unpack(key));
+            key = parentOf.get(key);
+        }
+        Collections.reverse(solutionPath);
+        return solutionPath;
+    }
+
     /**
      * Print the search result summary including path and timing.
      */
@@ -0,0 +1,180 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recursive Best-First Search (RBFS) for the Manuscript Sorting Problem.
+ * Linear memory like IDA*, but each recursion level remembers the f-values of its successors and
+ * backs up the best f of a forgotten subtree, so a subtree is only re-entered when it becomes the best option again.
+ */
+public class RBFSSearch {
+
+    private static final int SOLUTION_FOUND = -1;
+    private static final int BUDGET_STOPPED = -2;
+    private static final int NO_SOLUTION = Integer.MAX_VALUE;
+
+    /**
+     * State of one RBFS run; each call gets its own, so searches can run on several threads at once.
+     */
+    private static final class Search {
+        final long goal;
+        final int[] goalArray;
+        final int[][] goalPositions;
+        final boolean useMisplacedTiles;
+        final SearchBudget budget;
+        // current path (packed states), grown on demand
+        long[] currentPath = new long[64];
+        int nodesExplored;
+
+        Search(final int[] goal, final int[][] goalPositions, final boolean useMisplacedTiles,
+               final SearchBudget budget) {
+            this.goal = PuzzleState.pack(goal);
+            this.goalArray = goal;
+            this.goalPositions = goalPositions;
+            this.useMisplacedTiles = useMisplacedTiles;
+            this.budget = budget;
+        }
+
+        /**
+         * Search below currentPath[pathCost], whose f-value is nodeF, without exceeding fLimit.
+         * Returns SOLUTION_FOUND (-1) if goal reached, BUDGET_STOPPED (-2) if the budget ran out,
+         * otherwise the backed-up f-value of this subtree.
+         */
+        int recursiveBestFirst(final int pathCost, final int nodeF, final int fLimit) {
+            final long current = currentPath[pathCost];
+            nodesExplored++;
+
+            if (current == goal) {
+                return SOLUTION_FOUND;
+            }
+            if (budget.isExhausted(nodesExplored)) return BUDGET_STOPPED;
+
+            final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
+            final int[] successorF = new int[PuzzleState.MAX_NEIGHBORS];
+            final int expanded = PuzzleState.expand(current, successors);
+            int successorCount = 0;
+            for (int k = 0; k < expanded; k++) {
+                if (isOnPath(successors[k], pathCost)) continue;
+                final int heuristic = useMisplacedTiles
+                        ? PuzzleState.h1(successors[k], goalArray)
+                        : PuzzleState.h2(successors[k], goalPositions);
+                successors[successorCount] = successors[k];
+                // a child can never be cheaper than the (possibly backed-up) value of its parent
+                successorF[successorCount] = Math.max(pathCost + 1 + heuristic, nodeF);
+                successorCount++;
+            }
+            if (successorCount == 0) return NO_SOLUTION;
+
+            ensureDepthCapacity(pathCost + 1);
+            while (true) {
+                int best = 0;
+                for (int k = 1; k < successorCount; k++) {
+                    if (successorF[k] < successorF[best]) best = k;
+                }
+                if (successorF[best] > fLimit || successorF[best] == NO_SOLUTION) return successorF[best];
+
+                int alternative = NO_SOLUTION;
+                for (int k = 0; k < successorCount; k++) {
+                    if (k != best) alternative = Math.min(alternative, successorF[k]);
+                }
+
+                currentPath[pathCost + 1] = successors[best];
+                final int result = recursiveBestFirst(pathCost + 1, successorF[best], Math.min(fLimit, alternative));
+                if (result == SOLUTION_FOUND || result == BUDGET_STOPPED) return result;
+                successorF[best] = result;
+            }
+        }
+
+        private boolean isOnPath(final long state, final int pathCost) {
+            for (int depth = 0; depth <= pathCost; depth++) {
+                if (currentPath[depth] == state) return true;
+            }
+            return false;
+        }
+
+        private void ensureDepthCapacity(final int depth) {
+            if (depth >= currentPath.length) currentPath = Arrays.copyOf(currentPath, currentPath.length * 2);
+        }
+    }
+
+    /**
+     * Solve the puzzle using RBFS with the specified heuristic.
+     *
+     * @param useMisplacedTiles true = h1 (misplaced tiles), false = h2 (Manhattan distance)
+     */
+    static void solve(final int[] initial, final int[] goal, final int[][] goalPositions,
+                      final boolean useMisplacedTiles, final boolean printTrace) {
+        final String heuristicName = useMisplacedTiles ? "h1 - Misplaced Tiles" : "h2 - Manhattan Distance";
+        final String algorithm = "RBFSSearch/" + heuristicName;
+        if (SolutionCache.printIfCached(initial, goal, algorithm, heuristicName, printTrace)) {
+            System.out.println();
+            return;
+        }
+
+        final SearchResult result = search(initial, goal, goalPositions, useMisplacedTiles, SearchBudget.start());
+        if (result.status.isComplete()) SolutionCache.record(initial, goal, algorithm, result.solutionPath);
+        result.print(heuristicName, printTrace);
+        System.out.println();
+    }
+
+    /**
+     * RBFS from initial to goal within the budget.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final int[][] goalPositions,
+                               final boolean useMisplacedTiles, final SearchBudget budget) {
+        final long startTime = System.currentTimeMillis();
+        final Search search = new Search(goal, goalPositions, useMisplacedTiles, budget);
+        List<int[]> solutionPath = null;
+
+        search.currentPath[0] = PuzzleState.pack(initial);
+        final int initialF = useMisplacedTiles
+                ? PuzzleState.h1(search.currentPath[0], goal)
+                : PuzzleState.h2(search.currentPath[0], goalPositions);
+
+        // unsolvable pairs would make the recursion exhaust every simple path
+        if (PuzzleState.isSolvable(initial, goal)
+                && search.recursiveBestFirst(0, initialF, NO_SOLUTION - 1) == SOLUTION_FOUND) {
+            solutionPath = new ArrayList<>();
+            for (int depth = 0; ; depth++) {
+                solutionPath.add(PuzzleState.unpack(search.currentPath[depth]));
+                if (search.currentPath[depth] == search.goal) break;
+            }
+        }
+
+        return SearchResult.of(solutionPath, budget, search.nodesExplored, startTime);
+    }
+
+    /**
+     * Solve each puzzle with both heuristics and print results.
+     */
+    private static void solveWithBothHeuristics(final int[][] puzzle, final boolean printTrace) {
+        final int[] initial = puzzle[0];
+        final int[] goal = puzzle[1];
+        final int[][] goalPositions = PuzzleState.goalPosition(goal);
+
+        System.out.println("Start State: " + PuzzleState.stateToString(initial));
+        System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
+
+        solve(initial, goal, goalPositions, true, printTrace);
+        solve(initial, goal, goalPositions, false, printTrace);
+    }
+
+    public static void main(final String[] args) {
+        final String inputFile = args.length > 0 ? args[0] : "resource/input.txt";
+        final List<int[][]> puzzles = PuzzleState.readInputMultipleLines(inputFile);
+
+        if (puzzles.isEmpty()) return;
+
+        final boolean printTrace= args.length > 1 && ("y".equalsIgnoreCase(args[1]) || "yes".equalsIgnoreCase(args[1]));
+
+        System.out.println("============================================\n Recursive Best-First Search (RBFS)\n============================================");
+
+        final AtomicInteger testCaseNumber= new AtomicInteger(1);
+
+        puzzles.forEach(puzzle -> {
+            System.out.println("######################### Start of Test Case - "+testCaseNumber +" #########################");
+            testCaseNumber.getAndIncrement();
+            solveWithBothHeuristics(puzzle, printTrace);
+            System.out.println("######################### END #########################");
+        });
+    }
+}
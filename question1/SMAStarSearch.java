@@ -0,0 +1,276 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simplified Memory-Bounded A* (SMA*) for the Manuscript Sorting Problem.
+ * Runs A* on an explicit search tree but never holds more nodes than the memory budget allows.
+ * When the budget is full, the worst leaf (highest f, shallowest) is forgotten and its f-value is backed up
+ * into its parent. The parent goes back into the open set, keyed by its best forgotten child, so that branch is
+ * regenerated only once everything cheaper has been ruled out.
+ * Smaller budgets trade memory for re-expansion; with enough memory it behaves like A*.
+ */
+public class SMAStarSearch {
+
+    // rough heap cost of one tree node (object, child list, ordered-set entry)
+    static final int ESTIMATED_NODE_BYTES = 160;
+    private static final long DEFAULT_BUDGET_BYTES = 1L << 20;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * A node of the in-memory search tree. The open set holds leaves and nodes with forgotten children.
+     */
+    static final class TreeNode {
+        final long state;
+        final int pathCost;
+        final TreeNode parent;
+        final int slot;
+        final long id;
+        final List<TreeNode> children = new ArrayList<>(PuzzleState.MAX_NEIGHBORS);
+        // backed-up f of each forgotten child, by successor slot (0 = never forgotten)
+        final int[] forgottenF = new int[PuzzleState.MAX_NEIGHBORS];
+        int generatedSlots;
+        int inMemorySlots;
+        int f;
+        // open-set key: f for a leaf, best forgotten child for a partly forgotten node
+        int priority;
+
+        TreeNode(final long state, final int pathCost, final int f, final TreeNode parent, final int slot,
+                 final long id) {
+            this.state = state;
+            this.pathCost = pathCost;
+            this.f = f;
+            this.priority = f;
+            this.parent = parent;
+            this.slot = slot;
+            this.id = id;
+        }
+
+        /**
+         * Lowest backed-up value among the generated children that are no longer in memory.
+         */
+        int bestForgottenF() {
+            final int forgottenSlots = generatedSlots & ~inMemorySlots;
+            int lowest = UNREACHABLE;
+            for (int k = 0; k < forgottenF.length; k++) {
+                if ((forgottenSlots & (1 << k)) != 0) lowest = Math.min(lowest, forgottenF[k]);
+            }
+            return lowest;
+        }
+
+        boolean hasAncestor(final long candidate) {
+            for (TreeNode node = this; node != null; node = node.parent) {
+                if (node.state == candidate) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Best node first: lowest priority, then deepest, then newest. The worst leaf is found from the end.
+     */
+    private static final Comparator<TreeNode> LEAF_ORDER = Comparator
+            .comparingInt((TreeNode node) -> node.priority)
+            .thenComparing(Comparator.comparingInt((TreeNode node) -> node.pathCost).reversed())
+            .thenComparing(Comparator.comparingLong((TreeNode node) -> node.id).reversed());
+
+    /**
+     * Open set and counters of one SMA* run; each call gets its own, so searches can run on several threads at once.
+     */
+    private static final class Search {
+        final TreeSet<TreeNode> openLeaves = new TreeSet<>(LEAF_ORDER);
+        int nodesExplored;
+        int nodesForgotten;
+        int peakNodes = 1;
+        SearchResult result;
+
+        /**
+         * Drop a leaf (already out of the open set) and back its f-value up into the parent's slot for it.
+         * The parent is (re-)queued under its best forgotten child; a parent left without children becomes
+         * a leaf again, with f raised to that value.
+         */
+        void forget(final TreeNode leaf) {
+            nodesForgotten++;
+            final TreeNode parent = leaf.parent;
+            if (parent == null) return;
+
+            // re-key outside the set: TreeSet ordering must not change under a stored element
+            openLeaves.remove(parent);
+            parent.children.remove(leaf);
+            parent.inMemorySlots &= ~(1 << leaf.slot);
+            parent.forgottenF[leaf.slot] = leaf.f;
+            if (parent.children.isEmpty()) {
+                parent.f = Math.max(parent.f, parent.bestForgottenF());
+                parent.priority = parent.f;
+            } else {
+                parent.priority = parent.bestForgottenF();
+            }
+            openLeaves.add(parent);
+        }
+    }
+
+    /**
+     * Solve the puzzle using SMA* with the specified heuristic and memory budget.
+     *
+     * @param useMisplacedTiles true = h1 (misplaced tiles), false = h2 (Manhattan distance)
+     */
+    static void solve(final int[] initial, final int[] goal, final int[][] goalPositions,
+                      final boolean useMisplacedTiles, final long budgetBytes,
+                      final boolean printTrace) {
+        final String heuristicName = useMisplacedTiles ? "h1 - Misplaced Tiles" : "h2 - Manhattan Distance";
+        final int maxNodes = (int) Math.max(2, Math.min(Integer.MAX_VALUE, budgetBytes / ESTIMATED_NODE_BYTES));
+        final Search search = run(initial, goal, goalPositions, useMisplacedTiles, budgetBytes, SearchBudget.start());
+        search.result.print(heuristicName + ", budget " + budgetBytes + " bytes (" + maxNodes + " nodes)", printTrace);
+        System.out.println("Peak nodes in memory: " + search.peakNodes + ", nodes forgotten: " + search.nodesForgotten
+                + "\n");
+    }
+
+    /**
+     * SMA* with the default memory budget.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final int[][] goalPositions,
+                               final boolean useMisplacedTiles, final SearchBudget budget) {
+        return search(initial, goal, goalPositions, useMisplacedTiles, DEFAULT_BUDGET_BYTES, budget);
+    }
+
+    /**
+     * SMA* from initial to goal within budgetBytes of tree nodes and the search budget.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final int[][] goalPositions,
+                               final boolean useMisplacedTiles, final long budgetBytes, final SearchBudget budget) {
+        return run(initial, goal, goalPositions, useMisplacedTiles, budgetBytes, budget).result;
+    }
+
+    private static Search run(final int[] initial, final int[] goal, final int[][] goalPositions,
+                              final boolean useMisplacedTiles, final long budgetBytes, final SearchBudget budget) {
+        final long startTime = System.currentTimeMillis();
+        final int maxNodes = (int) Math.max(2, Math.min(Integer.MAX_VALUE, budgetBytes / ESTIMATED_NODE_BYTES));
+        final Search search = new Search();
+        List<int[]> solutionPath = null;
+
+        final long goalPacked = PuzzleState.pack(goal);
+        final long initialPacked = PuzzleState.pack(initial);
+        final TreeSet<TreeNode> openLeaves = search.openLeaves;
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
+        long nextId = 0;
+        int nodesInMemory = 1;
+        // unsolvable pairs would only stop once every path had outgrown the budget
+        if (PuzzleState.isSolvable(initial, goal)) openLeaves.add(new TreeNode(initialPacked, 0,
+                heuristic(initialPacked, goal, goalPositions, useMisplacedTiles), null, 0, nextId++));
+
+        while (!openLeaves.isEmpty()) {
+            final TreeNode best = openLeaves.pollFirst();
+            if (best.priority == UNREACHABLE) {
+                // every open node is out of reach, but an ancestor may still remember a finite forgotten branch;
+                // a node that still has children in memory simply leaves the open set
+                if (!best.children.isEmpty()) continue;
+                if (best.parent == null) break;
+                search.forget(best);
+                nodesInMemory--;
+                continue;
+            }
+            if (budget.isExhausted(search.nodesExplored)) break;
+            search.nodesExplored++;
+
+            if (best.state == goalPacked) {
+                solutionPath = new ArrayList<>();
+                for (TreeNode node = best; node != null; node = node.parent) {
+                    solutionPath.add(PuzzleState.unpack(node.state));
+                }
+                Collections.reverse(solutionPath);
+                break;
+            }
+
+            // a node expanded before only regenerates the children it has forgotten
+            final boolean regenerating = best.generatedSlots != 0;
+            final int forgottenSlots = best.generatedSlots & ~best.inMemorySlots;
+            final int successorCount = PuzzleState.expand(best.state, successors);
+            final int childrenBefore = best.children.size();
+            for (int k = 0; k < successorCount; k++) {
+                if (regenerating ? (forgottenSlots & (1 << k)) == 0 : best.hasAncestor(successors[k])) continue;
+                // a path longer than the budget can never be held in memory, so it is unreachable;
+                // a regenerated child starts from the value it had when it was forgotten
+                final int childF = best.pathCost + 2 > maxNodes
+                        ? UNREACHABLE
+                        : Math.max(Math.max(best.f, best.forgottenF[k]), best.pathCost + 1
+                        + heuristic(successors[k], goal, goalPositions, useMisplacedTiles));
+                final TreeNode child = new TreeNode(successors[k], best.pathCost + 1, childF, best, k, nextId++);
+                best.children.add(child);
+                best.generatedSlots |= 1 << k;
+                best.inMemorySlots |= 1 << k;
+                openLeaves.add(child);
+            }
+
+            if (best.children.isEmpty()) {
+                // dead end (every move returns to the path): forget it like an over-budget leaf
+                best.f = UNREACHABLE;
+                best.priority = UNREACHABLE;
+                search.forget(best);
+                nodesInMemory--;
+                continue;
+            }
+            nodesInMemory += best.children.size() - childrenBefore;
+
+            while (nodesInMemory > maxNodes) {
+                final Iterator<TreeNode> fromWorst = openLeaves.descendingIterator();
+                TreeNode worst = fromWorst.next();
+                while (!worst.children.isEmpty()) worst = fromWorst.next();
+                fromWorst.remove();
+                search.forget(worst);
+                nodesInMemory--;
+            }
+            search.peakNodes = Math.max(search.peakNodes, nodesInMemory);
+        }
+
+        // a shortest path longer than the memory budget cannot be found
+        search.result = SearchResult.ofIncomplete(solutionPath, PuzzleState.isSolvable(initial, goal), budget,
+                search.nodesExplored, startTime);
+        return search;
+    }
+
+    private static int heuristic(final long state, final int[] goal, final int[][] goalPositions,
+                                 final boolean useMisplacedTiles) {
+        return useMisplacedTiles
+                ? PuzzleState.h1(state, goal)
+                : PuzzleState.h2(state, goalPositions);
+    }
+
+    /**
+     * Solve each puzzle with both heuristics and print results.
+     */
+    private static void solveWithBothHeuristics(final int[][] puzzle, final long budgetBytes,
+                                                final boolean printTrace) {
+        final int[] initial = puzzle[0];
+        final int[] goal = puzzle[1];
+        final int[][] goalPositions = PuzzleState.goalPosition(goal);
+
+        System.out.println("Start State: " + PuzzleState.stateToString(initial));
+        System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
+
+        solve(initial, goal, goalPositions, true, budgetBytes, printTrace);
+        solve(initial, goal, goalPositions, false, budgetBytes, printTrace);
+    }
+
+    /**
+     * java SMAStarSearch input.txt [yes|no] [budgetBytes]
+     */
+    public static void main(final String[] args) {
+        final String inputFile = args.length > 0 ? args[0] : "resource/input.txt";
+        final List<int[][]> puzzles = PuzzleState.readInputMultipleLines(inputFile);
+
+        if (puzzles.isEmpty()) return;
+
+        final boolean printTrace= args.length > 1 && ("y".equalsIgnoreCase(args[1]) || "yes".equalsIgnoreCase(args[1]));
+        final long budgetBytes = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_BUDGET_BYTES;
+
+        System.out.println("============================================\n Simplified Memory-Bounded A* (SMA*)\n============================================");
+
+        final AtomicInteger testCaseNumber= new AtomicInteger(1);
+
+        puzzles.forEach(puzzle -> {
+            System.out.println("######################### Start of Test Case - "+testCaseNumber +" #########################");
+            testCaseNumber.getAndIncrement();
+            solveWithBothHeuristics(puzzle, budgetBytes, printTrace);
+            System.out.println("######################### END #########################");
+        });
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SearchBudget - Limits for one search run: a wall-clock deadline, a cap on states explored, a cap on heap
+ * in use, and a cancellation flag another thread can set. Solvers call isExhausted() once per state in their
+ * hot loop; the node cap and the flag are checked every time, the clock and the heap only every
+ * CHECK_INTERVAL states. The clock starts when the budget is created.
+ */
+public final class SearchBudget {
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+    private static final int CHECK_INTERVAL = 1024;
+
+    // limits used by start(); ManuscriptSorter sets them from its command line
+    private static volatile long defaultTimeoutMs = UNLIMITED;
+    private static volatile long defaultMaxNodes = UNLIMITED;
+    private static volatile long defaultMaxMemoryBytes = UNLIMITED;
+
+    private final long deadline;
+    private final long maxNodes;
+    private final long maxMemoryBytes;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private volatile SearchStatus stopStatus;
+
+    public SearchBudget(final long timeoutMs, final long maxNodes, final long maxMemoryBytes) {
+        final long now = System.currentTimeMillis();
+        this.deadline = timeoutMs >= UNLIMITED - now ? UNLIMITED : now + timeoutMs;
+        this.maxNodes = maxNodes;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    public static SearchBudget unlimited() {
+        return new SearchBudget(UNLIMITED, UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * A fresh budget with the default limits, its clock starting now.
+     */
+    public static SearchBudget start() {
+        return new SearchBudget(defaultTimeoutMs, defaultMaxNodes, defaultMaxMemoryBytes);
+    }
+
+    public static void setDefaults(final long timeoutMs, final long maxNodes, final long maxMemoryBytes) {
+        defaultTimeoutMs = timeoutMs;
+        defaultMaxNodes = maxNodes;
+        defaultMaxMemoryBytes = maxMemoryBytes;
+    }
+
+    /**
+     * Ask the search to stop at its next check.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * True once the search must stop; stopStatus() then says why.
+     */
+    public boolean isExhausted(final long nodesExplored) {
+        if (cancelled.get()) return stop(SearchStatus.CANCELLED);
+        if (nodesExplored > maxNodes) return stop(SearchStatus.BUDGET_EXCEEDED);
+        return nodesExplored % CHECK_INTERVAL == 0 && isOutOfTimeOrMemory();
+    }
+
+    /**
+     * Like isExhausted(), but always reads the clock and the heap; for callers that check once per batch of states.
+     */
+    public boolean isExhaustedNow(final long nodesExplored) {
+        if (cancelled.get()) return stop(SearchStatus.CANCELLED);
+        if (nodesExplored > maxNodes) return stop(SearchStatus.BUDGET_EXCEEDED);
+        return isOutOfTimeOrMemory();
+    }
+
+    private boolean isOutOfTimeOrMemory() {
+        if (deadline != UNLIMITED && System.currentTimeMillis() > deadline) return stop(SearchStatus.TIMEOUT);
+        if (maxMemoryBytes != UNLIMITED) {
+            // heap in use by the whole JVM, so the cap also covers memory other searches hold
+            final Runtime runtime = Runtime.getRuntime();
+            if (runtime.totalMemory() - runtime.freeMemory() > maxMemoryBytes) {
+                return stop(SearchStatus.BUDGET_EXCEEDED);
+            }
+        }
+        return false;
+    }
+
+    private boolean stop(final SearchStatus status) {
+        stopStatus = status;
+        return true;
+    }
+
+    /**
+     * Why isExhausted() returned true, or null if it never has.
+     */
+    public SearchStatus stopStatus() {
+        return stopStatus;
+    }
+
+    /**
+     * Parse "timeout=ms", "nodes=n" or "memory=mb"; returns false if the argument is not a budget option.
+     */
+    public static boolean applyDefaultOption(final String option) {
+        final int separator = option.indexOf('=');
+        if (separator < 0) return false;
+        final String name = option.substring(0, separator).toLowerCase();
+        if (!name.equals("timeout") && !name.equals("nodes") && !name.equals("memory")) return false;
+        final long value = Long.parseLong(option.substring(separator + 1));
+        switch (name) {
+            case "timeout":
+                defaultTimeoutMs = value;
+                return true;
+            case "nodes":
+                defaultMaxNodes = value;
+                return true;
+            case "memory":
+                defaultMaxMemoryBytes = value << 20;
+                return true;
+            default:
+                return false;
+        }
+    }
+}
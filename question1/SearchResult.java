@@ -0,0 +1,59 @@
+import java.util.List;
+
+/**
+ * SearchResult - Outcome of one solver run: its status, the path (null unless SOLVED) and the search effort.
+ * A stopped search still reports the states explored and the time spent before it stopped.
+ */
+public final class SearchResult {
+
+    public final SearchStatus status;
+    public final List<int[]> solutionPath;
+    public final int nodesExplored;
+    public final long timeTakenInMs;
+
+    public SearchResult(final SearchStatus status, final List<int[]> solutionPath, final int nodesExplored,
+                        final long timeTakenInMs) {
+        this.status = status;
+        this.solutionPath = solutionPath;
+        this.nodesExplored = nodesExplored;
+        this.timeTakenInMs = timeTakenInMs;
+    }
+
+    /**
+     * SOLVED if a path was found, otherwise the budget's stop reason, otherwise NO_SOLUTION.
+     */
+    public static SearchResult of(final List<int[]> solutionPath, final SearchBudget budget, final int nodesExplored,
+                                  final long startTime) {
+        final SearchStatus status = solutionPath != null ? SearchStatus.SOLVED
+                : budget.stopStatus() != null ? budget.stopStatus() : SearchStatus.NO_SOLUTION;
+        return new SearchResult(status, solutionPath, nodesExplored, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Like of, for a search that can miss a path that exists: without a path it reports NO_SOLUTION only when
+     * the pair fails the parity check, and GAVE_UP otherwise.
+     */
+    public static SearchResult ofIncomplete(final List<int[]> solutionPath, final boolean solvable,
+                                            final SearchBudget budget, final int nodesExplored, final long startTime) {
+        final SearchResult result = of(solutionPath, budget, nodesExplored, startTime);
+        return result.status == SearchStatus.NO_SOLUTION && solvable
+                ? new SearchResult(SearchStatus.GAVE_UP, null, nodesExplored, result.timeTakenInMs)
+                : result;
+    }
+
+    public boolean isSolved() {
+        return status == SearchStatus.SOLVED;
+    }
+
+    /**
+     * Print in the usual result format, plus the stop reason when the search was cut short.
+     */
+    public void print(final String heuristic, final boolean printTrace) {
+        PuzzleState.printResult(heuristic, isSolved(), solutionPath, nodesExplored, timeTakenInMs, printTrace);
+        if (status == SearchStatus.GAVE_UP) {
+            System.out.println("Search gave up: no path found, but the pair may still be solvable");
+        } else if (!status.isComplete()) {
+            System.out.println("Search stopped: " + status + " (partial result)");
+        }
+    }
+}
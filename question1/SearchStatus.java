@@ -0,0 +1,18 @@
+/**
+ * SearchStatus - How a search ended. TIMEOUT, BUDGET_EXCEEDED and CANCELLED mean the search was stopped
+ * early by its SearchBudget and the result is partial. NO_SOLUTION is a proof (an exhaustive search or the
+ * parity check); GAVE_UP means an incomplete search (depth limit, iteration cap, memory bound) found no path,
+ * so the pair may still be solvable.
+ */
+public enum SearchStatus {
+    SOLVED,
+    NO_SOLUTION,
+    GAVE_UP,
+    TIMEOUT,
+    BUDGET_EXCEEDED,
+    CANCELLED;
+
+    public boolean isComplete() {
+        return this == SOLVED || this == NO_SOLUTION;
+    }
+}
@@ -1,5 +1,6 @@
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.*;
 
 /**
@@ -13,9 +14,20 @@ public class SimulatedAnnealingSearch {
     private static final int ITERATION_LIMIT = 500000;
     private static final int PROGRESS_INTERVAL = 100000;
     private static final long RANDOM_SEED = 42;
+    private static final String DEFAULT_SCHEDULE = "geometric";
 
     public static void main(final String[] args) {
         final String inputFile = args.length > 0 ? args[0] : "resource/input.txt";
+        final Supplier<CoolingSchedule> schedules;
+        try {
+            schedules = CoolingSchedule.named(args.length > 2 ? args[2] : DEFAULT_SCHEDULE, STARTING_TEMPERATURE,
+                    COOLING_FACTOR, ITERATION_LIMIT);
+        } catch (IllegalArgumentException exception) {
+            System.err.println(exception.getMessage());
+            System.err.println("Usage: java SimulatedAnnealingSearch <input> [yes|no] ["
+                    + String.join("|", CoolingSchedule.NAMES) + "]");
+            return;
+        }
         final List<int[][]> puzzles = PuzzleState.readInputMultipleLines(inputFile);
 
         if (puzzles.isEmpty()) return;
@@ -26,7 +38,7 @@ public class SimulatedAnnealingSearch {
         puzzles.forEach(puzzle -> {
             System.out.println("######################### Start of Test Case - "+i +" #########################");
             i.getAndIncrement();
-            solveAndPrint(puzzle, printTrace);
+            solveAndPrint(puzzle, schedules.get(), printTrace);
             System.out.println("######################### END #########################");
         });
     }
@@ -34,7 +46,7 @@ public class SimulatedAnnealingSearch {
     /**
      * Solve a single puzzle using Simulated Annealing and print the results.
      */
-    private static void solveAndPrint(final int[][] puzzle, final boolean printTrace) {
+    private static void solveAndPrint(final int[][] puzzle, final CoolingSchedule schedule, final boolean printTrace) {
         final int[] initial = puzzle[0];
         final int[] goal = puzzle[1];
         final int[][] goalPositions = PuzzleState.goalPosition(goal);
@@ -42,68 +54,129 @@ public class SimulatedAnnealingSearch {
         System.out.println("Start State: " + PuzzleState.stateToString(initial));
         System.out.println("Goal  State: " + PuzzleState.stateToString(goal));
 
-        printCoolingSchedule();
+        final long startTime = System.currentTimeMillis();
+        printCoolingSchedule(schedule);
+
+        final Anneal run = anneal(PuzzleState.pack(initial), goalPositions, schedule, SearchBudget.start(), true);
+        final SearchResult result = run.toResult(PuzzleState.isSolvable(initial, goal), startTime);
+
+        System.out.println();
+        result.print("h2 - Manhattan Distance", printTrace);
+
+        System.out.printf("Accepted moves   : %d (%d kept in the log, %d after loop elimination)%n",
+                run.moveLog.getMovesRecorded(), run.moveLog.size(), run.loopFree.size());
+        System.out.printf("Final Temperature: %.6f%n", run.temperature);
+        if (schedule instanceof CoolingSchedule.Adaptive) {
+            System.out.println("Reheats          : " + ((CoolingSchedule.Adaptive) schedule).getReheats());
+        }
+        System.out.println("Best h2 achieved : " + run.closestDistance);
+        if (!run.solved) {
+            System.out.println("Best state found (not goal):");
+            System.out.print(PuzzleState.stateToGrid(PuzzleState.unpack(run.closestState)));
+        }
+        System.out.println();
+    }
 
+    /**
+     * Simulated annealing from initial to goal with the default geometric schedule, within the budget.
+     */
+    static SearchResult search(final int[] initial, final int[] goal, final SearchBudget budget) {
         final long startTime = System.currentTimeMillis();
+        final CoolingSchedule schedule = CoolingSchedule.create(DEFAULT_SCHEDULE, STARTING_TEMPERATURE,
+                COOLING_FACTOR, ITERATION_LIMIT);
+        return anneal(PuzzleState.pack(initial), PuzzleState.goalPosition(goal), schedule, budget, false)
+                .toResult(PuzzleState.isSolvable(initial, goal), startTime);
+    }
+
+    /**
+     * Outcome of one annealing run.
+     */
+    private static final class Anneal {
+        final long initial;
+        final MoveLog moveLog;
+        final SearchBudget budget;
+        MoveLog loopFree;
+        boolean solved;
+        int nodesExplored;
+        double temperature;
+        long closestState;
+        int closestDistance;
+
+        Anneal(final long initial, final SearchBudget budget) {
+            this.initial = initial;
+            this.moveLog = new MoveLog(initial);
+            this.budget = budget;
+        }
+
+        /**
+         * Running out of iterations proves nothing, so a solvable pair without a path is GAVE_UP.
+         */
+        SearchResult toResult(final boolean solvable, final long startTime) {
+            return SearchResult.ofIncomplete(solved ? loopFree.toPath(initial) : null, solvable, budget,
+                    nodesExplored, startTime);
+        }
+    }
+
+    /**
+     * Run the annealing loop until the goal is reached, the schedule runs out or the budget is exhausted.
+     * printProgress prints the temperature and distances every PROGRESS_INTERVAL iterations.
+     */
+    private static Anneal anneal(final long initial, final int[][] goalPositions, final CoolingSchedule schedule,
+                                 final SearchBudget budget, final boolean printProgress) {
         final Random rng = new Random(RANDOM_SEED);
-        int nodesExplored = 0;
-        boolean solved = false;
+        final Anneal run = new Anneal(initial, budget);
 
-        double temperature = STARTING_TEMPERATURE;
-        int[] current = initial.clone();
+        double temperature = schedule.initialTemperature();
+        long current = initial;
         int currentDistance = PuzzleState.h2(current, goalPositions);
 
-        int[] closestState = current.clone();
+        long closestState = current;
         int closestDistance = currentDistance;
-
-        final List<int[]> solutionPath = new ArrayList<>();
-        solutionPath.add(initial.clone());
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
 
         for (int iteration = 0; iteration < ITERATION_LIMIT && temperature > TEMPERATURE_FLOOR; iteration++) {
-            nodesExplored++;
+            if (budget.isExhausted(run.nodesExplored)) break;
+            run.nodesExplored++;
 
             if (currentDistance == 0) {
-                solved = true;
+                run.solved = true;
                 break;
             }
 
-            final List<int[]> successors = PuzzleState.getNeighbors(current);
-            final int[] candidate = successors.get(rng.nextInt(successors.size()));
+            final int successorCount = PuzzleState.expand(current, successors);
+            final int choice = rng.nextInt(successorCount);
+            final long candidate = successors[choice];
             final int candidateDistance = PuzzleState.h2(candidate, goalPositions);
             final int costDifference = candidateDistance - currentDistance;
 
-            if (shouldAccept(costDifference, temperature, rng)) {
+            final boolean accepted = shouldAccept(costDifference, temperature, rng);
+            boolean improvedBest = false;
+            if (accepted) {
+                run.moveLog.append(PuzzleState.MOVE_DIRECTIONS[PuzzleState.blankPosition(current)][choice]);
                 current = candidate;
                 currentDistance = candidateDistance;
-                solutionPath.add(current.clone());
 
                 if (currentDistance < closestDistance) {
                     closestDistance = currentDistance;
-                    closestState = current.clone();
+                    closestState = current;
+                    improvedBest = true;
                 }
             }
 
-            temperature *= COOLING_FACTOR;
+            schedule.observe(costDifference, accepted, improvedBest);
+            temperature = schedule.next(temperature, iteration);
 
-            if ((iteration + 1) % PROGRESS_INTERVAL == 0) {
+            if (printProgress && (iteration + 1) % PROGRESS_INTERVAL == 0) {
                 System.out.printf("  Iteration %d: T=%.4f, current h2=%d, best h2=%d%n",
                         iteration + 1, temperature, currentDistance, closestDistance);
             }
         }
 
-        final long timeTakenInMS = System.currentTimeMillis() - startTime;
-
-        System.out.println();
-        PuzzleState.printResult("h2 - Manhattan Distance",
-                solved, solved ? solutionPath : null, nodesExplored, timeTakenInMS, printTrace);
-
-        System.out.printf("Final Temperature: %.6f%n", temperature);
-        System.out.println("Best h2 achieved : " + closestDistance);
-        if (!solved) {
-            System.out.println("Best state found (not goal):");
-            System.out.print(PuzzleState.stateToGrid(closestState));
-        }
-        System.out.println();
+        run.loopFree = run.solved ? run.moveLog.eliminateLoops(initial) : run.moveLog;
+        run.temperature = temperature;
+        run.closestState = closestState;
+        run.closestDistance = closestDistance;
+        return run;
     }
 
     /**
@@ -118,10 +191,9 @@ public class SimulatedAnnealingSearch {
     /**
      * Print the cooling schedule parameters.
      */
-    private static void printCoolingSchedule() {
-        System.out.println("Cooling Schedule:");
-        System.out.println("  T0           = " + STARTING_TEMPERATURE);
-        System.out.println("  Cooling Rate = " + COOLING_FACTOR);
+    private static void printCoolingSchedule(final CoolingSchedule schedule) {
+        System.out.println("Cooling Schedule: " + schedule.name());
+        schedule.describe().forEach(line -> System.out.println("  " + line));
         System.out.println("  Temperature minimum       = " + TEMPERATURE_FLOOR);
         System.out.println("  Iteration limit     = " + ITERATION_LIMIT);
     }
@@ -0,0 +1,234 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * SolutionCache - Bounded LRU cache of solved puzzles shared by every solver in a run.
+ * Entries are keyed by the canonical (start, goal) pair (see GoalCanonicalizer) and the algorithm name, so pairs
+ * that differ only in tile labels share an entry. A solution is stored as a compact string of blank moves
+ * (U, D, L, R), which does not depend on the labels. The cache can be persisted to a memory-mapped file
+ * between runs. It is disabled unless enable() is called, so solvers report their own search by default.
+ */
+public class SolutionCache {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+    // stored for pairs the algorithm proved unsolvable
+    static final String NO_SOLUTION = "-";
+    private static final String MOVE_LETTERS = "UDLR";
+    // last digit is the format version; 2 stores string lengths as ints
+    private static final int FILE_MAGIC = 0x8C0FFEE2;
+
+    private static volatile SolutionCache shared;
+
+    /**
+     * Cache key: canonical start packed with the goal's blank position, plus the algorithm.
+     */
+    static final class Key {
+        final long problem;
+        final String algorithm;
+
+        Key(final long problem, final String algorithm) {
+            this.problem = problem;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) return false;
+            final Key key = (Key) other;
+            return problem == key.problem && algorithm.equals(key.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(problem) * 31 + algorithm.hashCode();
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, String> entries;
+    private long hits;
+    private long misses;
+
+    public SolutionCache(final int capacity) {
+        this.capacity = capacity;
+        // access order: the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, String> eldest) {
+                return size() > SolutionCache.this.capacity;
+            }
+        };
+    }
+
+    public static SolutionCache enable(final int capacity) {
+        shared = new SolutionCache(capacity);
+        return shared;
+    }
+
+    /**
+     * The shared cache, or null when caching is disabled.
+     */
+    public static SolutionCache shared() {
+        return shared;
+    }
+
+    static Key keyOf(final int[] start, final int[] goal, final String algorithm) {
+        final GoalCanonicalizer canonicalizer = new GoalCanonicalizer(goal);
+        final long problem = PuzzleState.pack(canonicalizer.canonicalize(start))
+                | ((long) PuzzleState.findBlank(goal) << (PuzzleState.TILE_COUNT * PuzzleState.BITS_PER_TILE));
+        return new Key(problem, algorithm);
+    }
+
+    /**
+     * Cached move string for the pair, NO_SOLUTION, or null on a miss.
+     */
+    public synchronized String lookup(final int[] start, final int[] goal, final String algorithm) {
+        final String moves = entries.get(keyOf(start, goal, algorithm));
+        if (moves == null) misses++;
+        else hits++;
+        return moves;
+    }
+
+    public synchronized void store(final int[] start, final int[] goal, final String algorithm,
+                                   final List<int[]> solutionPath) {
+        entries.put(keyOf(start, goal, algorithm), solutionPath == null ? NO_SOLUTION : encode(solutionPath));
+    }
+
+    /**
+     * Blank moves along a path, one letter per move.
+     */
+    static String encode(final List<int[]> solutionPath) {
+        final StringBuilder moves = new StringBuilder(solutionPath.size());
+        for (int i = 1; i < solutionPath.size(); i++) {
+            moves.append(PuzzleState.getAction(solutionPath.get(i - 1), solutionPath.get(i)).charAt(0));
+        }
+        return moves.toString();
+    }
+
+    /**
+     * Replay a move string from the start state.
+     */
+    static List<int[]> decode(final int[] start, final String moves) {
+        final List<int[]> path = new ArrayList<>(moves.length() + 1);
+        int[] state = start;
+        path.add(state);
+        for (int i = 0; i < moves.length(); i++) {
+            final int dir = MOVE_LETTERS.indexOf(moves.charAt(i));
+            final int blankPos = PuzzleState.findBlank(state);
+            state = PuzzleState.swap(state, blankPos,
+                    (blankPos / PuzzleState.SIZE + PuzzleState.DR[dir]) * PuzzleState.SIZE
+                            + blankPos % PuzzleState.SIZE + PuzzleState.DC[dir]);
+            path.add(state);
+        }
+        return path;
+    }
+
+    /**
+     * If caching is on and the pair was already solved by this algorithm, print the cached result and return true.
+     */
+    public static boolean printIfCached(final int[] start, final int[] goal, final String algorithm,
+                                        final String heuristicName, final boolean printTrace) {
+        final SolutionCache cache = shared;
+        if (cache == null) return false;
+        final long startTime = System.currentTimeMillis();
+        final String moves = cache.lookup(start, goal, algorithm);
+        if (moves == null) return false;
+
+        final boolean solved = !NO_SOLUTION.equals(moves);
+        PuzzleState.printResult(heuristicName, solved, solved ? decode(start, moves) : null, 0,
+                System.currentTimeMillis() - startTime, printTrace);
+        System.out.println("(served from solution cache)");
+        return true;
+    }
+
+    /**
+     * Record a solver's result in the shared cache, if caching is on.
+     */
+    public static void record(final int[] start, final int[] goal, final String algorithm,
+                              final List<int[]> solutionPath) {
+        final SolutionCache cache = shared;
+        if (cache != null) cache.store(start, goal, algorithm, solutionPath);
+    }
+
+    /**
+     * Load entries saved by save(); a missing file leaves the cache empty.
+     */
+    public synchronized void load(final Path file) throws IOException {
+        if (!Files.exists(file)) return;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != FILE_MAGIC) {
+                throw new IOException("Not a solution cache file: " + file);
+            }
+            final int count = buffer.getInt();
+            // read everything first so that a damaged file leaves the cache untouched
+            final Map<Key, String> loaded = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                requireRemaining(buffer, Long.BYTES, file);
+                final long problem = buffer.getLong();
+                final String algorithm = readString(buffer, file);
+                final String moves = readString(buffer, file);
+                loaded.put(new Key(problem, algorithm), moves);
+            }
+            entries.putAll(loaded);
+        }
+    }
+
+    /**
+     * Write every entry, least recently used first, so that a reload keeps the same eviction order.
+     */
+    public synchronized void save(final Path file) throws IOException {
+        final List<byte[]> encoded = new ArrayList<>(entries.size() * 2);
+        long size = 8;
+        for (final Map.Entry<Key, String> entry : entries.entrySet()) {
+            final byte[] algorithm = entry.getKey().algorithm.getBytes(StandardCharsets.US_ASCII);
+            final byte[] moves = entry.getValue().getBytes(StandardCharsets.US_ASCII);
+            encoded.add(algorithm);
+            encoded.add(moves);
+            size += Long.BYTES + 2 * Integer.BYTES + algorithm.length + moves.length;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(FILE_MAGIC).putInt(entries.size());
+            int index = 0;
+            for (final Key key : entries.keySet()) {
+                buffer.putLong(key.problem);
+                writeString(buffer, encoded.get(index++));
+                writeString(buffer, encoded.get(index++));
+            }
+            buffer.force();
+        }
+    }
+
+    private static String readString(final MappedByteBuffer buffer, final Path file) throws IOException {
+        requireRemaining(buffer, Integer.BYTES, file);
+        final int length = buffer.getInt();
+        if (length < 0) throw new IOException("Corrupt solution cache file: " + file);
+        requireRemaining(buffer, length, file);
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static void requireRemaining(final MappedByteBuffer buffer, final int bytes, final Path file)
+            throws IOException {
+        if (buffer.remaining() < bytes) throw new IOException("Truncated solution cache file: " + file);
+    }
+
+    private static void writeString(final MappedByteBuffer buffer, final byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    public synchronized void printStatistics() {
+        final long lookups = hits + misses;
+        System.out.printf("Solution cache: %d hits, %d misses, hit rate %.1f%%, %d/%d entries%n",
+                hits, misses, lookups == 0 ? 0.0 : 100.0 * hits / lookups, entries.size(), capacity);
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Solver - A named search algorithm that solves one (start, goal) pair within a SearchBudget.
+ * Implementations must be safe to call from several threads at once; the race mode in ManuscriptSorter runs
+ * solvers concurrently and cancels the losers through their budgets.
+ */
+public interface Solver {
+
+    /**
+     * Name used to select the solver on the command line.
+     */
+    String name();
+
+    /**
+     * True if every path this solver returns is a shortest one.
+     */
+    boolean isOptimal();
+
+    SearchResult solve(int[] start, int[] goal, SearchBudget budget);
+
+    /**
+     * The search function a solver wraps.
+     */
+    @FunctionalInterface
+    interface Search {
+        SearchResult run(int[] start, int[] goal, SearchBudget budget);
+    }
+
+    static Solver of(final String name, final boolean optimal, final Search search) {
+        return new Solver() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public boolean isOptimal() {
+                return optimal;
+            }
+
+            @Override
+            public SearchResult solve(final int[] start, final int[] goal, final SearchBudget budget) {
+                return search.run(start, goal, budget);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * SolverRace - Runs several solvers concurrently on one puzzle and keeps the first acceptable answer.
+ * With requireOptimal, only a solved result from an optimal solver wins; a NO_SOLUTION from any solver also
+ * wins, since it proves the pair unsolvable (incomplete solvers report GAVE_UP instead). Otherwise the first
+ * solved result wins. Every other solver is then cancelled through its SearchBudget and the race returns at once;
+ * the losers wind down on their own threads, and whatever they return or throw afterwards is ignored. If no answer
+ * qualifies, the first solved result of any solver is returned instead.
+ */
+public final class SolverRace {
+
+    /**
+     * Result of one race: the winner (null if nobody answered), its result, and what every solver returned.
+     */
+    public static final class Outcome {
+        public final Solver winner;
+        public final SearchResult result;
+        // solvers that had finished when the race was decided, in the order they were given
+        public final Map<Solver, SearchResult> results;
+        // time until the winner was accepted, not counting the losers winding down
+        public final long timeTakenInMs;
+
+        Outcome(final Solver winner, final SearchResult result, final Map<Solver, SearchResult> results,
+                final long timeTakenInMs) {
+            this.winner = winner;
+            this.result = result;
+            this.results = results;
+            this.timeTakenInMs = timeTakenInMs;
+        }
+    }
+
+    private SolverRace() {
+    }
+
+    public static Outcome race(final List<Solver> solvers, final int[] start, final int[] goal,
+                               final boolean requireOptimal) throws InterruptedException {
+        return race(solvers, start, goal, requireOptimal, SearchBudget::start);
+    }
+
+    /**
+     * Race with one budget per solver taken from budgets, e.g. with per-request limits.
+     */
+    public static Outcome race(final List<Solver> solvers, final int[] start, final int[] goal,
+                               final boolean requireOptimal, final Supplier<SearchBudget> budgets)
+            throws InterruptedException {
+        final long startTime = System.currentTimeMillis();
+        final ExecutorService runners = Executors.newFixedThreadPool(solvers.size());
+        final CompletionService<Integer> finished = new ExecutorCompletionService<>(runners);
+        final SearchBudget[] solverBudgets = new SearchBudget[solvers.size()];
+        final SearchResult[] results = new SearchResult[solvers.size()];
+
+        for (int k = 0; k < solvers.size(); k++) {
+            final int index = k;
+            solverBudgets[k] = budgets.get();
+            finished.submit(() -> {
+                results[index] = solvers.get(index).solve(start, goal, solverBudgets[index]);
+                return index;
+            });
+        }
+
+        final boolean[] finishedInTime = new boolean[solvers.size()];
+        int winner = -1;
+        int fallback = -1;
+        long timeTakenInMs = 0;
+        Throwable failure = null;
+        try {
+            for (int pending = solvers.size(); pending > 0 && winner < 0; pending--) {
+                final int index;
+                try {
+                    index = finished.take().get();
+                } catch (ExecutionException exception) {
+                    // a failed solver just does not answer; it only matters if nobody else does
+                    if (failure == null) failure = exception.getCause();
+                    continue;
+                }
+                finishedInTime[index] = true;
+                final Solver solver = solvers.get(index);
+                final SearchResult result = results[index];
+                final boolean proved = result.status == SearchStatus.NO_SOLUTION;
+                if ((result.isSolved() && (!requireOptimal || solver.isOptimal())) || proved) {
+                    winner = index;
+                    timeTakenInMs = System.currentTimeMillis() - startTime;
+                } else if (result.isSolved() && fallback < 0) {
+                    fallback = index;
+                }
+            }
+        } finally {
+            for (final SearchBudget budget : solverBudgets) budget.cancel();
+            runners.shutdownNow();
+        }
+
+        if (winner < 0) {
+            if (fallback < 0 && failure != null) throw new IllegalStateException("Solver failed: " + failure, failure);
+            winner = fallback;
+            timeTakenInMs = System.currentTimeMillis() - startTime;
+        }
+        final Map<Solver, SearchResult> bySolver = new LinkedHashMap<>();
+        for (int k = 0; k < solvers.size(); k++) {
+            if (finishedInTime[k]) bySolver.put(solvers.get(k), results[k]);
+        }
+        return winner < 0
+                ? new Outcome(null, null, bySolver, timeTakenInMs)
+                : new Outcome(solvers.get(winner), results[winner], bySolver, timeTakenInMs);
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.*;
+
+/**
+ * SolverRegistry - Every path-finding solver under the name used to select it on the command line,
+ * e.g. "astar-h2" or "idastar-h1". Solvers that take a heuristic are registered once per heuristic;
+ * the rest use h2 (Manhattan distance) where they need one.
+ */
+public final class SolverRegistry {
+
+    private static final Map<String, Solver> SOLVERS = new LinkedHashMap<>();
+
+    static {
+        register(Solver.of("bfs", true, BFSSearch::search));
+        register(Solver.of("dfs", false, DFSSearch::search));
+        register(Solver.of("iddfs", true, DFSSearch::searchIterativeDeepening));
+        register(Solver.of("greedy", false, (start, goal, budget) ->
+                GreedyBestFirstSearch.search(start, goal, PuzzleState.goalPosition(goal), budget)));
+        for (final boolean useMisplacedTiles : new boolean[]{true, false}) {
+            final String suffix = useMisplacedTiles ? "-h1" : "-h2";
+            register(Solver.of("astar" + suffix, true, (start, goal, budget) -> AStarSearch.search(start, goal,
+                    PuzzleState.goalPosition(goal), useMisplacedTiles, new IndexedStateHeap(), budget)));
+            register(Solver.of("idastar" + suffix, true, (start, goal, budget) -> IDAStarSearch.search(start, goal,
+                    PuzzleState.goalPosition(goal), useMisplacedTiles, false, budget)));
+            register(Solver.of("rbfs" + suffix, true, (start, goal, budget) -> RBFSSearch.search(start, goal,
+                    PuzzleState.goalPosition(goal), useMisplacedTiles, budget)));
+            register(Solver.of("sma" + suffix, true, (start, goal, budget) -> SMAStarSearch.search(start, goal,
+                    PuzzleState.goalPosition(goal), useMisplacedTiles, budget)));
+            register(Solver.of("hda" + suffix, true, (start, goal, budget) -> ParallelAStarSearch.search(start,
+                    goal, PuzzleState.goalPosition(goal), useMisplacedTiles, budget)));
+        }
+        register(Solver.of("ara", false, ARAStarSearch::search));
+        register(Solver.of("sa", false, SimulatedAnnealingSearch::search));
+        register(Solver.of("pt", false, ParallelTemperingSearch::search));
+    }
+
+    private SolverRegistry() {
+    }
+
+    public static synchronized void register(final Solver solver) {
+        SOLVERS.put(solver.name(), solver);
+    }
+
+    public static synchronized Collection<Solver> all() {
+        return List.copyOf(SOLVERS.values());
+    }
+
+    /**
+     * The solver registered under a name; throws IllegalArgumentException listing the known names otherwise.
+     */
+    public static synchronized Solver get(final String name) {
+        final Solver solver = SOLVERS.get(name.toLowerCase());
+        if (solver == null) {
+            throw new IllegalArgumentException("Unknown solver: " + name + " (known: "
+                    + String.join(", ", SOLVERS.keySet()) + ")");
+        }
+        return solver;
+    }
+
+    /**
+     * Solvers named in a comma-separated list, in the order given.
+     */
+    public static List<Solver> select(final String names) {
+        final List<Solver> selected = new ArrayList<>();
+        for (final String name : names.split(",")) {
+            if (!name.isBlank()) selected.add(get(name.trim()));
+        }
+        return selected;
+    }
+}
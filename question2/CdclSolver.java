@@ -0,0 +1,433 @@
+import java.util.*;
+
+/*
+ * Small in-process CDCL SAT solver (conflict-driven clause learning).
+ * Two watched literals per clause, first-UIP learning, VSIDS variable activity with phase saving,
+ * and Luby restarts. Clauses are given in DIMACS style: variable v as +v / -v, variables numbered from 1.
+ */
+public class CdclSolver {
+
+    public enum Result { SATISFIABLE, UNSATISFIABLE }
+
+    private static final int NO_REASON = -1;
+    private static final int RESTART_BASE_CONFLICTS = 100;
+    private static final double ACTIVITY_DECAY = 0.95;
+    private static final double ACTIVITY_RESCALE_LIMIT = 1e100;
+
+    /**
+     * Growable int array used for watch lists, trail limits and learnt clauses.
+     */
+    private static final class IntVec {
+        private int[] data = new int[4];
+        private int size = 0;
+
+        void push(final int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int get(final int index) {
+            return data[index];
+        }
+
+        void set(final int index, final int value) {
+            data[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void shrink(final int newSize) {
+            size = newSize;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    private final int variableCount;
+    private final List<int[]> clauses = new ArrayList<>();
+    private final IntVec[] watches;
+
+    // internal literal = 2 * var + (negative ? 1 : 0)
+    private final byte[] assigns;
+    private final int[] level;
+    private final int[] reason;
+    private final int[] trail;
+    private int trailSize = 0;
+    private int propagationHead = 0;
+    private final IntVec trailLimits = new IntVec();
+
+    private final double[] activity;
+    private double activityIncrement = 1.0;
+    private final boolean[] savedPhaseNegative;
+    private final int[] heap;
+    private final int[] heapPosition;
+    private int heapSize = 0;
+    private final boolean[] seen;
+
+    private boolean unsatisfiableAtRoot = false;
+    private long conflicts = 0;
+    private long decisions = 0;
+    private long propagations = 0;
+    private int learntClauses = 0;
+    private int restarts = 0;
+
+    public CdclSolver(final int variableCount) {
+        this.variableCount = variableCount;
+        final int literalSlots = 2 * (variableCount + 1);
+        this.watches = new IntVec[literalSlots];
+        for (int literal = 0; literal < literalSlots; literal++) watches[literal] = new IntVec();
+
+        this.assigns = new byte[variableCount + 1];
+        this.level = new int[variableCount + 1];
+        this.reason = new int[variableCount + 1];
+        this.trail = new int[variableCount + 1];
+        this.activity = new double[variableCount + 1];
+        this.savedPhaseNegative = new boolean[variableCount + 1];
+        this.seen = new boolean[variableCount + 1];
+        this.heap = new int[variableCount + 1];
+        this.heapPosition = new int[variableCount + 1];
+        Arrays.fill(reason, NO_REASON);
+        Arrays.fill(savedPhaseNegative, true);
+        Arrays.fill(heapPosition, -1);
+        for (int variable = 1; variable <= variableCount; variable++) heapInsert(variable);
+    }
+
+    /**
+     * Add a clause (before solving). Duplicate literals are dropped and tautologies ignored.
+     */
+    public void addClause(final int... dimacsLiterals) {
+        if (unsatisfiableAtRoot) return;
+
+        final var literals = new LinkedHashSet<Integer>();
+        for (final int dimacsLiteral : dimacsLiterals) {
+            final int literal = toInternal(dimacsLiteral);
+            if (literals.contains(literal ^ 1)) return;
+            if (value(literal) == 1) return;
+            if (value(literal) == 0) literals.add(literal);
+        }
+
+        if (literals.isEmpty()) {
+            unsatisfiableAtRoot = true;
+        } else if (literals.size() == 1) {
+            enqueue(literals.iterator().next(), NO_REASON);
+            if (propagate() != NO_REASON) unsatisfiableAtRoot = true;
+        } else {
+            final int[] clause = literals.stream().mapToInt(Integer::intValue).toArray();
+            attachClause(clause);
+        }
+    }
+
+    public Result solve() {
+        if (unsatisfiableAtRoot || propagate() != NO_REASON) return Result.UNSATISFIABLE;
+
+        for (int restart = 1; ; restart++) {
+            final Optional<Result> result = search(luby(restart) * RESTART_BASE_CONFLICTS);
+            if (result.isPresent()) return result.get();
+            restarts++;
+        }
+    }
+
+    /**
+     * Truth value of a variable in the satisfying assignment found by {@link #solve()}.
+     */
+    public boolean modelValue(final int variable) {
+        return assigns[variable] > 0;
+    }
+
+    long getConflicts() {
+        return conflicts;
+    }
+
+    long getDecisions() {
+        return decisions;
+    }
+
+    long getPropagations() {
+        return propagations;
+    }
+
+    int getLearntClauses() {
+        return learntClauses;
+    }
+
+    int getRestarts() {
+        return restarts;
+    }
+
+    int getClauseCount() {
+        return clauses.size();
+    }
+
+    /**
+     * CDCL loop until a result or until the conflict budget of this restart is used up (empty result).
+     */
+    private Optional<Result> search(final long conflictBudget) {
+        long conflictsThisRestart = 0;
+        while (true) {
+            final int conflictClause = propagate();
+            if (conflictClause != NO_REASON) {
+                conflicts++;
+                conflictsThisRestart++;
+                if (decisionLevel() == 0) return Optional.of(Result.UNSATISFIABLE);
+
+                final int[] learnt = analyze(conflictClause);
+                cancelUntil(backtrackLevel(learnt));
+                if (learnt.length == 1) {
+                    enqueue(learnt[0], NO_REASON);
+                } else {
+                    enqueue(learnt[0], attachClause(learnt));
+                    learntClauses++;
+                }
+                activityIncrement /= ACTIVITY_DECAY;
+                continue;
+            }
+
+            if (conflictsThisRestart >= conflictBudget) {
+                cancelUntil(0);
+                return Optional.empty();
+            }
+
+            final int variable = pickBranchVariable();
+            if (variable == 0) return Optional.of(Result.SATISFIABLE);
+            decisions++;
+            trailLimits.push(trailSize);
+            enqueue(2 * variable + (savedPhaseNegative[variable] ? 1 : 0), NO_REASON);
+        }
+    }
+
+    /**
+     * Unit propagation over the two watched literals. Returns the index of a falsified clause, or NO_REASON.
+     */
+    private int propagate() {
+        while (propagationHead < trailSize) {
+            final int falseLiteral = trail[propagationHead++] ^ 1;
+            final IntVec watchList = watches[falseLiteral];
+            propagations++;
+
+            int read = 0;
+            int write = 0;
+            while (read < watchList.size()) {
+                final int clauseIndex = watchList.get(read++);
+                final int[] clause = clauses.get(clauseIndex);
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                if (value(clause[0]) == 1) {
+                    watchList.set(write++, clauseIndex);
+                    continue;
+                }
+
+                boolean movedWatch = false;
+                for (int position = 2; position < clause.length; position++) {
+                    if (value(clause[position]) != -1) {
+                        clause[1] = clause[position];
+                        clause[position] = falseLiteral;
+                        watches[clause[1]].push(clauseIndex);
+                        movedWatch = true;
+                        break;
+                    }
+                }
+                if (movedWatch) continue;
+
+                watchList.set(write++, clauseIndex);
+                if (value(clause[0]) == -1) {
+                    while (read < watchList.size()) watchList.set(write++, watchList.get(read++));
+                    watchList.shrink(write);
+                    propagationHead = trailSize;
+                    return clauseIndex;
+                }
+                enqueue(clause[0], clauseIndex);
+            }
+            watchList.shrink(write);
+        }
+        return NO_REASON;
+    }
+
+    /**
+     * First-UIP conflict analysis. The asserting literal is returned at index 0 and the literal with the
+     * highest remaining level at index 1, ready to be watched.
+     */
+    private int[] analyze(int conflictClause) {
+        final IntVec learnt = new IntVec();
+        learnt.push(0);
+        int pathCount = 0;
+        int uipLiteral = -1;
+        int trailIndex = trailSize - 1;
+
+        do {
+            final int[] clause = clauses.get(conflictClause);
+            for (int position = (uipLiteral == -1 ? 0 : 1); position < clause.length; position++) {
+                final int literal = clause[position];
+                final int variable = literal >> 1;
+                if (seen[variable] || level[variable] == 0) continue;
+                seen[variable] = true;
+                bumpActivity(variable);
+                if (level[variable] >= decisionLevel()) {
+                    pathCount++;
+                } else {
+                    learnt.push(literal);
+                }
+            }
+            while (!seen[trail[trailIndex] >> 1]) trailIndex--;
+            uipLiteral = trail[trailIndex--];
+            conflictClause = reason[uipLiteral >> 1];
+            seen[uipLiteral >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        learnt.set(0, uipLiteral ^ 1);
+
+        final int[] learntClause = learnt.toArray();
+        for (int position = 1; position < learntClause.length; position++) seen[learntClause[position] >> 1] = false;
+
+        int highestPosition = 1;
+        for (int position = 2; position < learntClause.length; position++) {
+            if (level[learntClause[position] >> 1] > level[learntClause[highestPosition] >> 1]) highestPosition = position;
+        }
+        if (learntClause.length > 1) {
+            final int swap = learntClause[1];
+            learntClause[1] = learntClause[highestPosition];
+            learntClause[highestPosition] = swap;
+        }
+        return learntClause;
+    }
+
+    private int backtrackLevel(final int[] learnt) {
+        return learnt.length == 1 ? 0 : level[learnt[1] >> 1];
+    }
+
+    private int attachClause(final int[] clause) {
+        final int clauseIndex = clauses.size();
+        clauses.add(clause);
+        watches[clause[0]].push(clauseIndex);
+        watches[clause[1]].push(clauseIndex);
+        return clauseIndex;
+    }
+
+    private void cancelUntil(final int targetLevel) {
+        if (decisionLevel() <= targetLevel) return;
+        final int keep = trailLimits.get(targetLevel);
+        for (int index = trailSize - 1; index >= keep; index--) {
+            final int variable = trail[index] >> 1;
+            savedPhaseNegative[variable] = (trail[index] & 1) == 1;
+            assigns[variable] = 0;
+            reason[variable] = NO_REASON;
+            if (heapPosition[variable] < 0) heapInsert(variable);
+        }
+        trailSize = keep;
+        propagationHead = keep;
+        trailLimits.shrink(targetLevel);
+    }
+
+    private void enqueue(final int literal, final int reasonClause) {
+        final int variable = literal >> 1;
+        assigns[variable] = (byte) ((literal & 1) == 0 ? 1 : -1);
+        level[variable] = decisionLevel();
+        reason[variable] = reasonClause;
+        trail[trailSize++] = literal;
+    }
+
+    /**
+     * 1 = true, -1 = false, 0 = unassigned.
+     */
+    private int value(final int literal) {
+        final int assignment = assigns[literal >> 1];
+        return (literal & 1) == 0 ? assignment : -assignment;
+    }
+
+    private int decisionLevel() {
+        return trailLimits.size();
+    }
+
+    private static int toInternal(final int dimacsLiteral) {
+        return 2 * Math.abs(dimacsLiteral) + (dimacsLiteral < 0 ? 1 : 0);
+    }
+
+    /**
+     * Luby sequence 1 1 2 1 1 2 4 1 1 2 ... (1-based).
+     */
+    static long luby(final int index) {
+        int position = index - 1;
+        int size = 1;
+        int exponent = 0;
+        while (size < position + 1) {
+            exponent++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != position) {
+            size = (size - 1) >> 1;
+            exponent--;
+            position = position % size;
+        }
+        return 1L << exponent;
+    }
+
+    // ---- VSIDS: activity-ordered binary max-heap of variables ----
+
+    private void bumpActivity(final int variable) {
+        activity[variable] += activityIncrement;
+        if (activity[variable] > ACTIVITY_RESCALE_LIMIT) {
+            for (int other = 1; other <= variableCount; other++) activity[other] *= 1 / ACTIVITY_RESCALE_LIMIT;
+            activityIncrement *= 1 / ACTIVITY_RESCALE_LIMIT;
+        }
+        if (heapPosition[variable] >= 0) siftUp(heapPosition[variable]);
+    }
+
+    private int pickBranchVariable() {
+        while (heapSize > 0) {
+            final int variable = heapRemoveTop();
+            if (assigns[variable] == 0) return variable;
+        }
+        return 0;
+    }
+
+    private void heapInsert(final int variable) {
+        heap[heapSize] = variable;
+        heapPosition[variable] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int heapRemoveTop() {
+        final int top = heap[0];
+        heapPosition[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapPosition[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        final int variable = heap[position];
+        while (position > 0) {
+            final int parent = (position - 1) >> 1;
+            if (activity[heap[parent]] >= activity[variable]) break;
+            heap[position] = heap[parent];
+            heapPosition[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = variable;
+        heapPosition[variable] = position;
+    }
+
+    private void siftDown(int position) {
+        final int variable = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) child++;
+            if (activity[heap[child]] <= activity[variable]) break;
+            heap[position] = heap[child];
+            heapPosition[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = variable;
+        heapPosition[variable] = position;
+    }
+}
@@ -0,0 +1,165 @@
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+ * Benchmark harness for the Security Bot CSP engines.
+ * JMH is not available here (plain javac, no build tool), so this follows the same protocol by hand:
+ * warm-up iterations first, then measured iterations on a fresh model each time, reporting time to first
+ * solution, engine work (backtracks / nodes / conflicts / steps) and bytes allocated by the calling thread.
+ */
+public class CspBenchmark {
+
+    private static final int DEFAULT_WARMUP_ITERATIONS = 5;
+    private static final int DEFAULT_MEASURED_ITERATIONS = 10;
+    private static final long BENCHMARK_SEED = 2024;
+    private static final long MIN_CONFLICTS_STEP_LIMIT = 200_000;
+
+    /**
+     * Outcome of one engine run: whether a schedule was found and the engine's own work counter.
+     */
+    static final class RunResult {
+        final boolean solved;
+        final long work;
+
+        RunResult(final boolean solved, final long work) {
+            this.solved = solved;
+            this.work = work;
+        }
+    }
+
+    interface Engine {
+        String name();
+
+        String workUnit();
+
+        RunResult run(SecurityBotCSP model);
+    }
+
+    static final List<Engine> ENGINES = List.of(
+            engine("backtracking+CBJ", "backtracks", model -> {
+                model.setTraceEnabled(false);
+                final boolean solved = model.solve();
+                return new RunResult(solved, model.getTotalBacktracks());
+            }),
+            engine("parallel-portfolio", "nodes", model -> {
+                final var scheduler = new ParallelBotScheduler(model, Runtime.getRuntime().availableProcessors(),
+                        2, ParallelBotScheduler.DEFAULT_PORTFOLIO);
+                final boolean solved = scheduler.solve().isPresent();
+                return new RunResult(solved, scheduler.getNodesExplored());
+            }),
+            engine("sat-cdcl", "conflicts", model -> {
+                final var solver = new SatScheduleEncoder(model).buildSolver();
+                final boolean solved = solver.solve() == CdclSolver.Result.SATISFIABLE;
+                return new RunResult(solved, solver.getConflicts());
+            }),
+            engine("min-conflicts", "steps", model -> {
+                final var scheduler = new MinConflictsScheduler(model, BENCHMARK_SEED);
+                scheduler.solve(MIN_CONFLICTS_STEP_LIMIT, 10, 0.05);
+                return new RunResult(scheduler.getBestViolations() == 0, scheduler.getStepsTaken());
+            })
+    );
+
+    private static Engine engine(final String name, final String workUnit,
+                                 final java.util.function.Function<SecurityBotCSP, RunResult> body) {
+        return new Engine() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String workUnit() {
+                return workUnit;
+            }
+
+            @Override
+            public RunResult run(final SecurityBotCSP model) {
+                return body.apply(model);
+            }
+        };
+    }
+
+    static List<CspInstanceGenerator.Instance> defaultSuite() {
+        final double phaseDensity = CspInstanceGenerator.findPhaseTransition(4, 16, BENCHMARK_SEED);
+        return List.of(
+                CspInstanceGenerator.generate(3, 12, 0.20, true, true, BENCHMARK_SEED),
+                CspInstanceGenerator.generate(5, 40, 0.30, true, true, BENCHMARK_SEED),
+                CspInstanceGenerator.generate(4, 16, phaseDensity, true, true, BENCHMARK_SEED),
+                CspInstanceGenerator.generate(8, 300, 0.25, true, true, BENCHMARK_SEED),
+                CspInstanceGenerator.generate(6, 60, 0.10, false, true, BENCHMARK_SEED)
+        );
+    }
+
+    private static void benchmark(final CspInstanceGenerator.Instance instance, final Engine engine,
+                                  final int warmupIterations, final int measuredIterations) {
+        for (int iteration = 0; iteration < warmupIterations; iteration++) {
+            engine.run(instance.newModel());
+        }
+
+        final long[] elapsedNanos = new long[measuredIterations];
+        long totalWork = 0;
+        long totalAllocatedBytes = 0;
+        boolean solved = false;
+        for (int iteration = 0; iteration < measuredIterations; iteration++) {
+            final SecurityBotCSP model = instance.newModel();
+            final long allocatedBefore = allocatedBytes();
+            final long startNanos = System.nanoTime();
+            final RunResult result = engine.run(model);
+            elapsedNanos[iteration] = System.nanoTime() - startNanos;
+            totalAllocatedBytes += allocatedBytes() - allocatedBefore;
+            totalWork += result.work;
+            solved = result.solved;
+        }
+
+        Arrays.sort(elapsedNanos);
+        System.out.printf("  %-20s %-6s %10.3f %10.3f %10.3f %12d %-10s %12.1f%n",
+                engine.name(),
+                solved ? "yes" : "no",
+                elapsedNanos[0] / 1_000_000.0,
+                elapsedNanos[measuredIterations / 2] / 1_000_000.0,
+                Arrays.stream(elapsedNanos).average().orElse(0) / 1_000_000.0,
+                totalWork / measuredIterations,
+                engine.workUnit(),
+                totalAllocatedBytes / (double) measuredIterations / 1024);
+    }
+
+    /**
+     * Bytes allocated so far by the current thread (-1 if the JVM does not support it).
+     * Worker threads of the parallel engine are not included.
+     */
+    private static long allocatedBytes() {
+        final var threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            // getCurrentThreadAllocatedBytes() would need JDK 14
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+
+    /**
+     * java CspBenchmark [warmup] [iterations] [engine,engine,...]
+     */
+    public static void main(final String[] args) {
+        final int warmupIterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WARMUP_ITERATIONS;
+        final int measuredIterations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MEASURED_ITERATIONS;
+        final Set<String> selectedEngines = args.length > 2
+                ? Set.of(args[2].split(","))
+                : ENGINES.stream().map(Engine::name).collect(Collectors.toSet());
+
+        System.out.println("=".repeat(100));
+        System.out.printf("  CSP Benchmark: %d warm-up + %d measured iterations per engine%n",
+                warmupIterations, measuredIterations);
+        System.out.println("=".repeat(100));
+
+        for (final var instance : defaultSuite()) {
+            System.out.println("\nInstance: " + instance.description);
+            System.out.printf("  %-20s %-6s %10s %10s %10s %12s %-10s %12s%n",
+                    "Engine", "Solved", "min ms", "p50 ms", "mean ms", "work", "", "alloc KB");
+            ENGINES.stream()
+                    .filter(engine -> selectedEngines.contains(engine.name()))
+                    .forEach(engine -> benchmark(instance, engine, warmupIterations, measuredIterations));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * Seeded instance generator for the Security Bot Scheduling Problem.
+ * Bots, slots, maintenance-break density and the constraint mix are all parameters, and the same seed
+ * always produces the same instance. findPhaseTransition locates the break density where about half of
+ * the generated instances are satisfiable (the hardest region for complete solvers).
+ */
+public class CspInstanceGenerator {
+
+    private static final int PHASE_TRANSITION_SAMPLES = 20;
+    private static final int PHASE_TRANSITION_BISECTIONS = 10;
+
+    /**
+     * A generated instance: the constructor arguments of SecurityBotCSP plus a description.
+     */
+    static final class Instance {
+        final List<String> bots;
+        final int slots;
+        final boolean noBackToBack;
+        final boolean minimumCoverage;
+        final Map<Integer, Set<String>> blocked;
+        final String description;
+
+        Instance(final List<String> bots, final int slots, final boolean noBackToBack,
+                 final boolean minimumCoverage, final Map<Integer, Set<String>> blocked, final String description) {
+            this.bots = bots;
+            this.slots = slots;
+            this.noBackToBack = noBackToBack;
+            this.minimumCoverage = minimumCoverage;
+            this.blocked = blocked;
+            this.description = description;
+        }
+
+        /**
+         * A fresh model for every run (solvers keep search state inside the model instance).
+         */
+        SecurityBotCSP newModel() {
+            return new SecurityBotCSP(bots, slots, noBackToBack, minimumCoverage, blocked);
+        }
+
+        /**
+         * Write the instance in the input.txt format read by SecurityBotCSP.loadFromFile.
+         */
+        void writeTo(final String filePath) throws IOException {
+            try (final var writer = new PrintWriter(filePath)) {
+                writer.println("# " + description);
+                writer.println("Bots: " + String.join(", ", bots));
+                writer.println("Slots: " + IntStream.rangeClosed(1, slots)
+                        .mapToObj(String::valueOf)
+                        .collect(Collectors.joining(", ")));
+                if (noBackToBack) writer.println("Constraint: NoBackToBack");
+                new TreeMap<>(blocked).forEach((slot, botsOnBreak) -> botsOnBreak.stream().sorted()
+                        .forEach(bot -> writer.println("Constraint: MaintenanceBreak " + bot + " " + slot)));
+                if (minimumCoverage) writer.println("Constraint: MinimumCoverage");
+            }
+        }
+    }
+
+    /**
+     * Generate an instance where each (slot, bot) pair is a maintenance break with probability breakDensity.
+     */
+    static Instance generate(final int botCount, final int slotCount, final double breakDensity,
+                             final boolean noBackToBack, final boolean minimumCoverage, final long seed) {
+        final var random = new Random(seed);
+        final List<String> bots = IntStream.range(0, botCount)
+                .mapToObj(CspInstanceGenerator::botName)
+                .collect(Collectors.toList());
+
+        final var blocked = new HashMap<Integer, Set<String>>();
+        for (int slot = 1; slot <= slotCount; slot++) {
+            for (final String bot : bots) {
+                if (random.nextDouble() < breakDensity) {
+                    blocked.computeIfAbsent(slot, key -> new HashSet<>()).add(bot);
+                }
+            }
+        }
+
+        final String description = String.format("bots=%d slots=%d density=%.3f noBackToBack=%b coverage=%b seed=%d",
+                botCount, slotCount, breakDensity, noBackToBack, minimumCoverage, seed);
+        return new Instance(bots, slotCount, noBackToBack, minimumCoverage, blocked, description);
+    }
+
+    /**
+     * Bot names A..Z, then A1..Z1, A2.. for larger rosters.
+     */
+    private static String botName(final int index) {
+        final String letter = String.valueOf((char) ('A' + index % 26));
+        return index < 26 ? letter : letter + (index / 26);
+    }
+
+    /**
+     * Bisect on the break density until about half of the sampled instances are satisfiable.
+     * Satisfiability is decided by the SAT backend, which is the fastest complete engine here.
+     */
+    static double findPhaseTransition(final int botCount, final int slotCount, final long seed) {
+        double low = 0.0;
+        double high = 1.0;
+        for (int step = 0; step < PHASE_TRANSITION_BISECTIONS; step++) {
+            final double density = (low + high) / 2;
+            if (satisfiableFraction(botCount, slotCount, density, seed) > 0.5) {
+                low = density;
+            } else {
+                high = density;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    static double satisfiableFraction(final int botCount, final int slotCount, final double density, final long seed) {
+        final long satisfiable = IntStream.range(0, PHASE_TRANSITION_SAMPLES)
+                .filter(sample -> {
+                    final var model = generate(botCount, slotCount, density, true, true, seed + sample).newModel();
+                    return new SatScheduleEncoder(model).buildSolver().solve() == CdclSolver.Result.SATISFIABLE;
+                })
+                .count();
+        return (double) satisfiable / PHASE_TRANSITION_SAMPLES;
+    }
+
+
+    /**
+     * java CspInstanceGenerator bots slots density seed output.txt [noB2B] [noCoverage]
+     * java CspInstanceGenerator bots slots phase seed output.txt   (density at the phase transition)
+     */
+    public static void main(final String[] args) {
+        if (args.length < 5) {
+            System.err.println("Usage: java CspInstanceGenerator <bots> <slots> <density|phase> <seed> <output> [noB2B] [noCoverage]");
+            return;
+        }
+        try {
+            final int botCount = Integer.parseInt(args[0]);
+            final int slotCount = Integer.parseInt(args[1]);
+            final long seed = Long.parseLong(args[3]);
+            final var flags = Set.of(Arrays.copyOfRange(args, 5, args.length));
+
+            final double density = "phase".equalsIgnoreCase(args[2])
+                    ? findPhaseTransition(botCount, slotCount, seed)
+                    : Double.parseDouble(args[2]);
+            final var instance = generate(botCount, slotCount, density,
+                    !flags.contains("noB2B"), !flags.contains("noCoverage"), seed);
+            instance.writeTo(args[4]);
+            System.out.println("Wrote " + instance.description + " to " + args[4]);
+
+        } catch (IOException exception) {
+            System.err.println("Failed to write instance: " + exception.getMessage());
+        } catch (IllegalArgumentException exception) {
+            System.err.println("Bad input: " + exception.getMessage());
+        }
+    }
+}
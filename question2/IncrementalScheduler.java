@@ -0,0 +1,314 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * Incremental re-solving for the Security Bot Scheduling Problem.
+ * Keeps the model and the current schedule resident and accepts deltas (maintenance breaks added or
+ * removed, slots appended, bots retired). After each delta the schedule is repaired with
+ * limited-discrepancy search around the previous schedule: first with 0 changed slots, then 1, 2, ...
+ * so the returned schedule differs from the old one in as few slots as possible.
+ * A delta that leaves no valid schedule is rolled back, so the current schedule always meets the constraints.
+ */
+public class IncrementalScheduler {
+
+    private static final int UNASSIGNED = -1;
+
+    private final List<String> bots;
+    private final boolean enforceNoBackToBack;
+    private final boolean enforceMinimumCoverage;
+    private final Map<Integer, Set<String>> blockedBotsBySlot;
+    private int numberOfSlots;
+
+    // current schedule: index 0 = Slot 1 (empty string = unassigned)
+    private final List<String> currentSchedule;
+
+    private long nodesExplored = 0;
+    private int lastRepairChanges = 0;
+
+    public IncrementalScheduler(final SecurityBotCSP model) {
+        this.bots = new ArrayList<>(model.getAvailableBots());
+        this.enforceNoBackToBack = model.isNoBackToBackEnforced();
+        this.enforceMinimumCoverage = model.isMinimumCoverageEnforced();
+        this.numberOfSlots = model.getNumberOfSlots();
+        this.blockedBotsBySlot = new HashMap<>();
+        IntStream.rangeClosed(1, numberOfSlots).forEach(slot -> bots.stream()
+                .filter(bot -> model.isBlocked(slot, bot))
+                .forEach(bot -> blockedBotsBySlot.computeIfAbsent(slot, key -> new HashSet<>()).add(bot)));
+        this.currentSchedule = new ArrayList<>(Collections.nCopies(numberOfSlots, ""));
+    }
+
+    /**
+     * Solve from scratch (an empty previous schedule has no values to keep).
+     */
+    public Optional<List<String>> solveInitial() {
+        return repair();
+    }
+
+    public Optional<List<String>> addMaintenanceBreak(final String bot, final int slot) {
+        requireKnownBot(bot);
+        final boolean added = blockedBotsBySlot.computeIfAbsent(slot, key -> new HashSet<>()).add(bot);
+        return repairOrRollBack(() -> {
+            if (added) blockedBotsBySlot.get(slot).remove(bot);
+        });
+    }
+
+    public Optional<List<String>> removeMaintenanceBreak(final String bot, final int slot) {
+        requireKnownBot(bot);
+        final Set<String> blockedSet = blockedBotsBySlot.get(slot);
+        final boolean removed = blockedSet != null && blockedSet.remove(bot);
+        return repairOrRollBack(() -> {
+            if (removed) blockedSet.add(bot);
+        });
+    }
+
+    public Optional<List<String>> addSlot() {
+        numberOfSlots++;
+        currentSchedule.add("");
+        return repairOrRollBack(() -> {
+            numberOfSlots--;
+            currentSchedule.remove(numberOfSlots);
+        });
+    }
+
+    public Optional<List<String>> removeBot(final String bot) {
+        requireKnownBot(bot);
+        if (bots.size() == 1) throw new IllegalArgumentException("Cannot remove the last bot");
+        final int botIndex = bots.indexOf(bot);
+        bots.remove(botIndex);
+        final int[] clearedSlots = IntStream.range(0, numberOfSlots)
+                .filter(index -> bot.equals(currentSchedule.get(index)))
+                .toArray();
+        for (final int index : clearedSlots) currentSchedule.set(index, "");
+        return repairOrRollBack(() -> {
+            bots.add(botIndex, bot);
+            for (final int index : clearedSlots) currentSchedule.set(index, bot);
+        });
+    }
+
+    public List<String> getCurrentSchedule() {
+        return Collections.unmodifiableList(currentSchedule);
+    }
+
+    long getNodesExplored() {
+        return nodesExplored;
+    }
+
+    int getLastRepairChanges() {
+        return lastRepairChanges;
+    }
+
+    private void requireKnownBot(final String bot) {
+        if (!bots.contains(bot)) throw new IllegalArgumentException("Unknown bot: " + bot);
+    }
+
+    /**
+     * Repair after a delta; if no valid schedule exists, undo the delta so the previous schedule stays current.
+     */
+    private Optional<List<String>> repairOrRollBack(final Runnable undo) {
+        final Optional<List<String>> repaired = repair();
+        if (repaired.isEmpty()) undo.run();
+        return repaired;
+    }
+
+    /**
+     * Limited-discrepancy repair. Following the previous value of a slot is free; any other value
+     * (or a value for a slot that had none) spends one discrepancy. Increasing the budget one step
+     * at a time makes the first schedule found a minimally changed one. Once a pass is never cut
+     * short by its budget, a larger budget would search the same tree, so the delta is unsatisfiable.
+     */
+    private Optional<List<String>> repair() {
+        nodesExplored = 0;
+        final boolean[][] supported = supportedValues();
+        if (supported == null) return Optional.empty();
+
+        final int[] previous = currentSchedule.stream().mapToInt(bots::indexOf).toArray();
+        final int[] assignment = new int[numberOfSlots];
+        final int[] shiftsPerBot = new int[bots.size()];
+        final int[] tried = new int[numberOfSlots];
+        final int[] lastSupportedSlot = new int[bots.size()];
+        Arrays.fill(lastSupportedSlot, UNASSIGNED);
+        for (int index = 0; index < numberOfSlots; index++) {
+            for (int bot = 0; bot < bots.size(); bot++) {
+                if (supported[index][bot]) lastSupportedSlot[bot] = index;
+            }
+        }
+
+        // slots whose previous value is missing or no longer allowed have to change
+        final int mandatoryChanges = (int) IntStream.range(0, numberOfSlots)
+                .filter(index -> previous[index] == UNASSIGNED || !supported[index][previous[index]])
+                .count();
+
+        for (int budget = mandatoryChanges; budget <= numberOfSlots; budget++) {
+            Arrays.fill(assignment, UNASSIGNED);
+            Arrays.fill(shiftsPerBot, 0);
+            Arrays.fill(tried, 0);
+            final SearchOutcome outcome = searchWithDiscrepancies(budget, previous, supported, lastSupportedSlot,
+                    assignment, shiftsPerBot, tried);
+            if (outcome == SearchOutcome.FOUND) {
+                lastRepairChanges = budget;
+                IntStream.range(0, numberOfSlots).forEach(index -> currentSchedule.set(index, bots.get(assignment[index])));
+                return Optional.of(getCurrentSchedule());
+            }
+            if (outcome == SearchOutcome.EXHAUSTED) break;
+        }
+        return Optional.empty();
+    }
+
+    private enum SearchOutcome { FOUND, EXHAUSTED, BUDGET_CUT }
+
+    /**
+     * Directional arc consistency along the roster, computed from the last slot back: a bot stays in a slot's
+     * domain only if it is not blocked there and the next slot keeps a value it can be followed by. This
+     * forward-checks every neighbouring slot in advance, so without the coverage constraint the search never
+     * backtracks. Returns null if some slot is left with no value.
+     */
+    private boolean[][] supportedValues() {
+        final boolean[][] supported = new boolean[numberOfSlots][bots.size()];
+        int nextCount = 0;
+        int nextOnlyBot = UNASSIGNED;
+        for (int index = numberOfSlots - 1; index >= 0; index--) {
+            int count = 0;
+            int onlyBot = UNASSIGNED;
+            for (int bot = 0; bot < bots.size(); bot++) {
+                if (blockedBotsBySlot.getOrDefault(index + 1, Set.of()).contains(bots.get(bot))) continue;
+                // with no back-to-back, the next slot must keep a bot other than this one
+                if (enforceNoBackToBack && index < numberOfSlots - 1 && nextCount == 1 && nextOnlyBot == bot) continue;
+                supported[index][bot] = true;
+                count++;
+                onlyBot = bot;
+            }
+            if (count == 0) return null;
+            nextCount = count;
+            nextOnlyBot = onlyBot;
+        }
+        return supported;
+    }
+
+    /**
+     * One limited-discrepancy pass with an explicit stack: tried[i] counts the candidates already taken for
+     * slot i (candidate 0 is its previous value, candidate k the bot k - 1), so backtracking resumes where
+     * the slot left off.
+     */
+    private SearchOutcome searchWithDiscrepancies(final int budget, final int[] previous, final boolean[][] supported,
+                                                  final int[] lastSupportedSlot, final int[] assignment,
+                                                  final int[] shiftsPerBot, final int[] tried) {
+        boolean budgetCut = false;
+        int spent = 0;
+        int missingBots = bots.size();
+        int slotIndex = 0;
+        if (!canStillCover(0, missingBots, shiftsPerBot, lastSupportedSlot)) return SearchOutcome.EXHAUSTED;
+        while (slotIndex < numberOfSlots) {
+            final int keptBot = previous[slotIndex];
+            int bot = UNASSIGNED;
+            while (bot == UNASSIGNED && tried[slotIndex] <= bots.size()) {
+                final int candidate = tried[slotIndex] == 0 ? keptBot : tried[slotIndex] - 1;
+                tried[slotIndex]++;
+                if (candidate == UNASSIGNED || (tried[slotIndex] > 1 && candidate == keptBot)) continue;
+                if (!supported[slotIndex][candidate]) continue;
+                if (enforceNoBackToBack && slotIndex > 0 && assignment[slotIndex - 1] == candidate) continue;
+                if (candidate != keptBot && spent == budget) {
+                    budgetCut = true;
+                    tried[slotIndex] = bots.size() + 1;
+                    break;
+                }
+                bot = candidate;
+            }
+
+            if (bot == UNASSIGNED) {
+                // every candidate of this slot failed: step back and resume the previous slot
+                tried[slotIndex] = 0;
+                if (slotIndex == 0) return budgetCut ? SearchOutcome.BUDGET_CUT : SearchOutcome.EXHAUSTED;
+                slotIndex--;
+                final int undone = assignment[slotIndex];
+                if (--shiftsPerBot[undone] == 0) missingBots++;
+                if (undone != previous[slotIndex]) spent--;
+                assignment[slotIndex] = UNASSIGNED;
+                continue;
+            }
+
+            nodesExplored++;
+            assignment[slotIndex] = bot;
+            if (shiftsPerBot[bot]++ == 0) missingBots--;
+            if (bot != keptBot) spent++;
+            if (canStillCover(slotIndex + 1, missingBots, shiftsPerBot, lastSupportedSlot)) {
+                slotIndex++;
+            } else {
+                if (--shiftsPerBot[bot] == 0) missingBots++;
+                if (bot != keptBot) spent--;
+                assignment[slotIndex] = UNASSIGNED;
+            }
+        }
+        return SearchOutcome.FOUND;
+    }
+
+    /**
+     * Coverage pruning: the bots still missing must fit into the slots that remain, and each of them must
+     * still be allowed in one of those slots.
+     */
+    private boolean canStillCover(final int slotIndex, final int missingBots, final int[] shiftsPerBot,
+                                  final int[] lastSupportedSlot) {
+        if (!enforceMinimumCoverage) return true;
+        if (missingBots > numberOfSlots - slotIndex) return false;
+        for (int bot = 0; bot < shiftsPerBot.length; bot++) {
+            if (shiftsPerBot[bot] == 0 && lastSupportedSlot[bot] < slotIndex) return false;
+        }
+        return true;
+    }
+
+    private static void printRepair(final String delta, final Optional<List<String>> schedule,
+                                    final IncrementalScheduler scheduler, final long elapsedNanos) {
+        System.out.printf("%-32s -> %s  (changed %d slot(s), %d nodes, %.3f ms)%n",
+                delta,
+                schedule.map(slots -> String.join(" ", slots)).orElse("NO VALID ASSIGNMENT (delta rolled back)"),
+                schedule.isPresent() ? scheduler.getLastRepairChanges() : 0,
+                scheduler.getNodesExplored(),
+                elapsedNanos / 1_000_000.0);
+    }
+
+
+    /**
+     * Replays deltas given after the input file, e.g.
+     * java IncrementalScheduler resource/input.txt +break:A:2 addslot -bot:B -break:C:4
+     */
+    public static void main(final String[] args) {
+        final String inputFilePath = (args.length > 0) ? args[0] : "resource/input.txt";
+
+        try {
+            final var scheduler = new IncrementalScheduler(SecurityBotCSP.loadFromFile(inputFilePath));
+            System.out.println("Loaded CSP from: " + inputFilePath);
+
+            long startNanos = System.nanoTime();
+            printRepair("initial solve", scheduler.solveInitial(), scheduler, System.nanoTime() - startNanos);
+
+            for (final String delta : Arrays.stream(args).skip(1).collect(Collectors.toList())) {
+                final String[] parts = delta.split(":");
+                startNanos = System.nanoTime();
+                final Optional<List<String>> repaired;
+                switch (parts[0].toLowerCase()) {
+                    case "+break":
+                        repaired = scheduler.addMaintenanceBreak(parts[1], Integer.parseInt(parts[2]));
+                        break;
+                    case "-break":
+                        repaired = scheduler.removeMaintenanceBreak(parts[1], Integer.parseInt(parts[2]));
+                        break;
+                    case "addslot":
+                        repaired = scheduler.addSlot();
+                        break;
+                    case "-bot":
+                        repaired = scheduler.removeBot(parts[1]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown delta: " + delta);
+                }
+                printRepair(delta, repaired, scheduler, System.nanoTime() - startNanos);
+            }
+
+        } catch (IOException exception) {
+            System.err.println("Failed to read input file: " + exception.getMessage());
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            System.err.println("Bad input: " + exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,325 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/*
+ * Min-conflicts local search for very large Security Bot rosters.
+ * Conflict counts are kept incrementally (per slot for maintenance / back-to-back, per bot for coverage),
+ * so evaluating a move is O(1). Recently abandoned values are tabu for a few steps, a random-walk move
+ * escapes plateaus, and the search restarts from a fresh greedy schedule when it stops improving.
+ * The result can be used on its own or as value hints for the complete solver in SecurityBotCSP.
+ */
+public class MinConflictsScheduler {
+
+    private static final long DEFAULT_MAX_STEPS = 2_000_000;
+    private static final int DEFAULT_TABU_TENURE = 10;
+    private static final double DEFAULT_WALK_PROBABILITY = 0.05;
+    private static final int STEPS_WITHOUT_IMPROVEMENT_BEFORE_RESTART = 50_000;
+    private static final int COVERAGE_SLOT_SAMPLES = 32;
+    private static final long RANDOM_SEED = 42;
+    private static final int NOT_IN_SET = -1;
+
+    private final SecurityBotCSP model;
+    private final List<String> bots;
+    private final int slotCount;
+    private final int botCount;
+    private final boolean[][] blocked;
+    private final Random random;
+
+    private final int[] assignment;
+    private final int[] shiftsPerBot;
+    private final long[] tabuUntilStep;
+    private int uncoveredBots;
+    private int totalViolations;
+
+    // slots with at least one maintenance / back-to-back violation, as an indexed set for O(1) updates
+    private final int[] conflictedSlots;
+    private final int[] positionInConflictSet;
+    private int conflictedCount;
+
+    private int[] bestAssignment;
+    private int bestViolations = Integer.MAX_VALUE;
+    private long stepsTaken = 0;
+    private int restarts = 0;
+
+    public MinConflictsScheduler(final SecurityBotCSP model, final long seed) {
+        this.model = model;
+        this.bots = model.getAvailableBots();
+        this.slotCount = model.getNumberOfSlots();
+        this.botCount = bots.size();
+        this.random = new Random(seed);
+
+        this.blocked = new boolean[slotCount][botCount];
+        for (int slot = 0; slot < slotCount; slot++) {
+            for (int bot = 0; bot < botCount; bot++) {
+                blocked[slot][bot] = model.isBlocked(slot + 1, bots.get(bot));
+            }
+        }
+
+        this.assignment = new int[slotCount];
+        this.shiftsPerBot = new int[botCount];
+        this.tabuUntilStep = new long[slotCount * botCount];
+        this.conflictedSlots = new int[slotCount];
+        this.positionInConflictSet = new int[slotCount];
+    }
+
+    /**
+     * Run min-conflicts with restarts until a violation-free schedule is found or the step budget is spent.
+     * Returns the best schedule seen (check {@link #getBestViolations()} for 0 to know it is valid).
+     */
+    public Map<Integer, String> solve(final long maxSteps, final int tabuTenure, final double walkProbability) {
+        stepsTaken = 0;
+        restarts = 0;
+        bestViolations = Integer.MAX_VALUE;
+
+        while (stepsTaken < maxSteps) {
+            initialiseGreedily();
+            long lastImprovementStep = stepsTaken;
+            int restartBest = totalViolations;
+            recordIfBest();
+
+            while (totalViolations > 0 && stepsTaken < maxSteps
+                    && stepsTaken - lastImprovementStep < STEPS_WITHOUT_IMPROVEMENT_BEFORE_RESTART) {
+                step(tabuTenure, walkProbability);
+                stepsTaken++;
+                if (totalViolations < restartBest) {
+                    restartBest = totalViolations;
+                    lastImprovementStep = stepsTaken;
+                    recordIfBest();
+                }
+            }
+            if (bestViolations == 0) break;
+            restarts++;
+        }
+        return toSchedule(bestAssignment);
+    }
+
+    public int getBestViolations() {
+        return bestViolations;
+    }
+
+    long getStepsTaken() {
+        return stepsTaken;
+    }
+
+    private void step(final int tabuTenure, final double walkProbability) {
+        final boolean repairCoverage = conflictedCount == 0
+                || (uncoveredBots > 0 && random.nextInt(conflictedCount + uncoveredBots) < uncoveredBots);
+        if (repairCoverage) {
+            coverageMove(tabuTenure);
+            return;
+        }
+
+        final int slot = conflictedSlots[random.nextInt(conflictedCount)];
+        if (random.nextDouble() < walkProbability) {
+            final int bot = random.nextInt(botCount);
+            if (bot != assignment[slot]) moveTo(slot, bot, tabuTenure);
+            return;
+        }
+
+        int chosenBot = assignment[slot];
+        int chosenDelta = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int bot = 0; bot < botCount; bot++) {
+            if (bot == assignment[slot]) continue;
+            final int delta = moveDelta(slot, bot);
+            final boolean tabu = tabuUntilStep[slot * botCount + bot] > stepsTaken;
+            final boolean aspiration = totalViolations + delta < bestViolations;
+            if (tabu && !aspiration) continue;
+
+            if (delta < chosenDelta) {
+                chosenDelta = delta;
+                chosenBot = bot;
+                ties = 1;
+            } else if (delta == chosenDelta && random.nextInt(++ties) == 0) {
+                chosenBot = bot;
+            }
+        }
+        if (chosenBot != assignment[slot]) moveTo(slot, chosenBot, tabuTenure);
+    }
+
+    /**
+     * Place a missing bot: sample a few slots and move it into the one with the best delta.
+     */
+    private void coverageMove(final int tabuTenure) {
+        final int missingBot = IntStream.range(0, botCount)
+                .filter(bot -> shiftsPerBot[bot] == 0)
+                .skip(random.nextInt(Math.max(1, uncoveredBots)))
+                .findFirst()
+                .orElse(-1);
+        if (missingBot < 0) return;
+
+        int chosenSlot = -1;
+        int chosenDelta = Integer.MAX_VALUE;
+        for (int sample = 0; sample < COVERAGE_SLOT_SAMPLES; sample++) {
+            final int slot = random.nextInt(slotCount);
+            final int delta = moveDelta(slot, missingBot);
+            if (delta < chosenDelta) {
+                chosenDelta = delta;
+                chosenSlot = slot;
+            }
+        }
+        if (chosenSlot >= 0) moveTo(chosenSlot, missingBot, tabuTenure);
+    }
+
+    /**
+     * Change in total violations if the slot switched to the given bot. O(1).
+     */
+    private int moveDelta(final int slot, final int bot) {
+        final int current = assignment[slot];
+        if (bot == current) return 0;
+
+        int delta = (blocked[slot][bot] ? 1 : 0) - (blocked[slot][current] ? 1 : 0);
+        if (model.isNoBackToBackEnforced()) {
+            if (slot > 0) delta += (assignment[slot - 1] == bot ? 1 : 0) - (assignment[slot - 1] == current ? 1 : 0);
+            if (slot < slotCount - 1) delta += (assignment[slot + 1] == bot ? 1 : 0) - (assignment[slot + 1] == current ? 1 : 0);
+        }
+        if (model.isMinimumCoverageEnforced()) {
+            delta += (shiftsPerBot[current] == 1 ? 1 : 0) - (shiftsPerBot[bot] == 0 ? 1 : 0);
+        }
+        return delta;
+    }
+
+    private void moveTo(final int slot, final int bot, final int tabuTenure) {
+        final int previous = assignment[slot];
+        totalViolations += moveDelta(slot, bot);
+        tabuUntilStep[slot * botCount + previous] = stepsTaken + tabuTenure;
+
+        shiftsPerBot[previous]--;
+        if (model.isMinimumCoverageEnforced()) {
+            if (shiftsPerBot[previous] == 0) uncoveredBots++;
+            if (shiftsPerBot[bot] == 0) uncoveredBots--;
+        }
+        shiftsPerBot[bot]++;
+        assignment[slot] = bot;
+
+        for (int neighbour = Math.max(0, slot - 1); neighbour <= Math.min(slotCount - 1, slot + 1); neighbour++) {
+            updateConflictMembership(neighbour);
+        }
+    }
+
+    private int slotConflicts(final int slot) {
+        final int bot = assignment[slot];
+        int conflicts = blocked[slot][bot] ? 1 : 0;
+        if (model.isNoBackToBackEnforced()) {
+            if (slot > 0 && assignment[slot - 1] == bot) conflicts++;
+            if (slot < slotCount - 1 && assignment[slot + 1] == bot) conflicts++;
+        }
+        return conflicts;
+    }
+
+    private void updateConflictMembership(final int slot) {
+        final boolean conflicted = slotConflicts(slot) > 0;
+        final int position = positionInConflictSet[slot];
+        if (conflicted && position == NOT_IN_SET) {
+            conflictedSlots[conflictedCount] = slot;
+            positionInConflictSet[slot] = conflictedCount++;
+        } else if (!conflicted && position != NOT_IN_SET) {
+            final int lastSlot = conflictedSlots[--conflictedCount];
+            conflictedSlots[position] = lastSlot;
+            positionInConflictSet[lastSlot] = position;
+            positionInConflictSet[slot] = NOT_IN_SET;
+        }
+    }
+
+    /**
+     * Left-to-right greedy start: an allowed bot different from the previous slot, least used first.
+     */
+    private void initialiseGreedily() {
+        Arrays.fill(shiftsPerBot, 0);
+        Arrays.fill(tabuUntilStep, 0L);
+        for (int slot = 0; slot < slotCount; slot++) {
+            int chosenBot = random.nextInt(botCount);
+            int chosenScore = Integer.MAX_VALUE;
+            final int offset = random.nextInt(botCount);
+            for (int step = 0; step < botCount; step++) {
+                final int bot = (offset + step) % botCount;
+                final boolean repeatsPrevious = model.isNoBackToBackEnforced() && slot > 0 && assignment[slot - 1] == bot;
+                final int score = (blocked[slot][bot] || repeatsPrevious ? slotCount : 0) + shiftsPerBot[bot];
+                if (score < chosenScore) {
+                    chosenScore = score;
+                    chosenBot = bot;
+                }
+            }
+            assignment[slot] = chosenBot;
+            shiftsPerBot[chosenBot]++;
+        }
+
+        uncoveredBots = model.isMinimumCoverageEnforced()
+                ? (int) Arrays.stream(shiftsPerBot).filter(shifts -> shifts == 0).count()
+                : 0;
+
+        conflictedCount = 0;
+        Arrays.fill(positionInConflictSet, NOT_IN_SET);
+        totalViolations = uncoveredBots;
+        for (int slot = 0; slot < slotCount; slot++) {
+            updateConflictMembership(slot);
+            totalViolations += blocked[slot][assignment[slot]] ? 1 : 0;
+            if (model.isNoBackToBackEnforced() && slot > 0 && assignment[slot - 1] == assignment[slot]) totalViolations++;
+        }
+    }
+
+    private void recordIfBest() {
+        if (totalViolations < bestViolations) {
+            bestViolations = totalViolations;
+            bestAssignment = assignment.clone();
+        }
+    }
+
+    private Map<Integer, String> toSchedule(final int[] botIndices) {
+        final var schedule = new LinkedHashMap<Integer, String>();
+        IntStream.range(0, slotCount).forEach(index -> schedule.put(index + 1, bots.get(botIndices[index])));
+        return schedule;
+    }
+
+    private void displayStatistics(final double elapsedTimeSeconds) {
+        System.out.println("\n"+"-".repeat(45));
+        System.out.println("  Solver Statistics:");
+        System.out.println("    Method       : Min-Conflicts + Tabu + Random Walk");
+        System.out.printf("    Violations   : %d%n", bestViolations);
+        System.out.printf("    Steps        : %d%n", stepsTaken);
+        System.out.printf("    Restarts     : %d%n", restarts);
+        System.out.printf("    Elapsed Time : %.6f sec%n", elapsedTimeSeconds);
+        System.out.println("-".repeat(45));
+    }
+
+
+    /**
+     * java MinConflictsScheduler input.txt [maxSteps] [warmstart]
+     * With "warmstart", the best local-search schedule is handed to the complete solver as value hints.
+     */
+    public static void main(final String[] args) {
+        final String inputFilePath = (args.length > 0) ? args[0] : "resource/input.txt";
+        final long maxSteps = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_MAX_STEPS;
+        final boolean warmStart = args.length > 2 && "warmstart".equalsIgnoreCase(args[2]);
+
+        try {
+            final var model = SecurityBotCSP.loadFromFile(inputFilePath);
+            final var scheduler = new MinConflictsScheduler(model, RANDOM_SEED);
+            System.out.println("Loaded CSP from: " + inputFilePath);
+            System.out.printf("Bots: %d | Slots: %d%n", model.getAvailableBots().size(), model.getNumberOfSlots());
+            System.out.println("Starting min-conflicts local search...");
+
+            final long startTimeNanos = System.nanoTime();
+            final var schedule = scheduler.solve(maxSteps, DEFAULT_TABU_TENURE, DEFAULT_WALK_PROBABILITY);
+            final double elapsedSeconds = (System.nanoTime() - startTimeNanos) / 1_000_000_000.0;
+
+            if (warmStart) {
+                System.out.println("Warm-starting the complete solver with the local-search schedule...");
+                model.setValueHints(schedule);
+                model.solveAndDisplay();
+            } else {
+                model.displayOutcome(scheduler.getBestViolations() == 0 ? schedule : null);
+                if (scheduler.getBestViolations() > 0) {
+                    System.out.println("  (local search is incomplete: no valid schedule found within the step budget)");
+                }
+            }
+            scheduler.displayStatistics(elapsedSeconds);
+
+        } catch (IOException exception) {
+            System.err.println("Failed to read input file: " + exception.getMessage());
+        } catch (IllegalArgumentException exception) {
+            System.err.println("Bad input: " + exception.getMessage());
+        }
+    }
+}
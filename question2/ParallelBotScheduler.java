@@ -0,0 +1,356 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * Parallel solver for the Security Bot Scheduling Problem.
+ * The top decision levels are split into independent subproblems with cloned bitset domains,
+ * which run on a work-stealing pool next to a portfolio of ordering / random-seed variants.
+ * The first worker to complete a schedule stops every other worker.
+ */
+public class ParallelBotScheduler {
+
+    private static final int DEFAULT_SPLIT_DEPTH = 2;
+    private static final int UNASSIGNED = -1;
+
+    enum ValueOrder { INDEX, LEAST_USED, RANDOM }
+
+    /**
+     * One portfolio member: how the next slot and the order of its candidate bots are chosen.
+     */
+    static final class Variant {
+        final String name;
+        final boolean useMrv;
+        final ValueOrder valueOrder;
+        final long seed;
+
+        Variant(final String name, final boolean useMrv, final ValueOrder valueOrder, final long seed) {
+            this.name = name;
+            this.useMrv = useMrv;
+            this.valueOrder = valueOrder;
+            this.seed = seed;
+        }
+    }
+
+    static final List<Variant> DEFAULT_PORTFOLIO = List.of(
+            new Variant("MRV / bot order", true, ValueOrder.INDEX, 0L),
+            new Variant("MRV / least-used bot first", true, ValueOrder.LEAST_USED, 0L),
+            new Variant("MRV / random seed 42", true, ValueOrder.RANDOM, 42L),
+            new Variant("Slot order / random seed 17", false, ValueOrder.RANDOM, 17L)
+    );
+
+    /**
+     * Search state of one subproblem. Domains are bitsets over bot indices, so a split is a cheap clone.
+     */
+    static final class SearchState {
+        final long[] domains;
+        final int[] assignment;
+        final int[] usage;
+        int assignedCount;
+
+        SearchState(final long[] domains, final int botCount) {
+            this.domains = domains;
+            this.assignment = new int[domains.length];
+            this.usage = new int[botCount];
+            Arrays.fill(assignment, UNASSIGNED);
+        }
+
+        private SearchState(final SearchState source) {
+            this.domains = source.domains.clone();
+            this.assignment = source.assignment.clone();
+            this.usage = source.usage.clone();
+            this.assignedCount = source.assignedCount;
+        }
+
+        SearchState copy() {
+            return new SearchState(this);
+        }
+
+        long usedMask() {
+            long mask = 0L;
+            for (int bot = 0; bot < usage.length; bot++) {
+                if (usage[bot] > 0) mask |= 1L << bot;
+            }
+            return mask;
+        }
+    }
+
+    private final SecurityBotCSP model;
+    private final List<String> bots;
+    private final int slotCount;
+    private final long allBotsMask;
+    private final long[] initialDomains;
+    private final int parallelism;
+    private final int splitDepth;
+    private final List<Variant> portfolio;
+
+    private final AtomicReference<int[]> firstSolution = new AtomicReference<>();
+    private final AtomicReference<String> winningVariant = new AtomicReference<>();
+    private final LongAdder nodesExplored = new LongAdder();
+    private final LongAdder subproblemsSpawned = new LongAdder();
+
+    public ParallelBotScheduler(final SecurityBotCSP model, final int parallelism,
+                                final int splitDepth, final List<Variant> portfolio) {
+        this.model = model;
+        this.bots = model.getAvailableBots();
+        this.slotCount = model.getNumberOfSlots();
+        this.parallelism = parallelism;
+        this.splitDepth = splitDepth;
+        this.portfolio = List.copyOf(portfolio);
+
+        this.initialDomains = model.buildDomainMasks();
+        this.allBotsMask = (1L << bots.size()) - 1;
+    }
+
+    /**
+     * Run the portfolio on a fresh work-stealing pool and return the first schedule found.
+     */
+    public Optional<Map<Integer, String>> solve() {
+        firstSolution.set(null);
+        winningVariant.set(null);
+        nodesExplored.reset();
+        subproblemsSpawned.reset();
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(portfolio.stream()
+                            .map(variant -> new SubproblemTask(variant,
+                                    new SearchState(initialDomains.clone(), bots.size()),
+                                    new SplittableRandom(variant.seed), 0))
+                            .collect(Collectors.toList()));
+                }
+            });
+        } finally {
+            pool.shutdownNow();
+        }
+
+        final int[] solution = firstSolution.get();
+        if (solution == null) return Optional.empty();
+
+        final var schedule = new LinkedHashMap<Integer, String>();
+        IntStream.range(0, slotCount).forEach(index -> schedule.put(index + 1, bots.get(solution[index])));
+        return Optional.of(schedule);
+    }
+
+    /**
+     * A node of one variant's search tree. Above the split depth every child becomes its own
+     * task (stolen by idle workers); below it the subtree is searched sequentially.
+     */
+    private final class SubproblemTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Variant variant;
+        private final SearchState state;
+        private final SplittableRandom random;
+        private final int depth;
+
+        SubproblemTask(final Variant variant, final SearchState state,
+                       final SplittableRandom random, final int depth) {
+            this.variant = variant;
+            this.state = state;
+            this.random = random;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= splitDepth) {
+                searchSequentially(variant, state, random);
+                return;
+            }
+            if (isStopped()) return;
+            nodesExplored.increment();
+            if (!isCoverageStillFeasible(state)) return;
+
+            final int slot = pickNextSlot(variant, state);
+            if (slot == UNASSIGNED) {
+                publishSolution(variant, state);
+                return;
+            }
+
+            final var children = new ArrayList<SubproblemTask>();
+            for (final int bot : orderValues(variant, state, slot, random)) {
+                final SearchState child = state.copy();
+                if (assign(child, slot, bot) != null) {
+                    children.add(new SubproblemTask(variant, child, random.split(), depth + 1));
+                }
+            }
+            subproblemsSpawned.add(children.size());
+            invokeAll(children);
+        }
+    }
+
+    long getNodesExplored() {
+        return nodesExplored.sum();
+    }
+
+    private boolean searchSequentially(final Variant variant, final SearchState state,
+                                       final SplittableRandom random) {
+        if (isStopped()) return false;
+        nodesExplored.increment();
+        if (!isCoverageStillFeasible(state)) return false;
+
+        final int slot = pickNextSlot(variant, state);
+        if (slot == UNASSIGNED) {
+            publishSolution(variant, state);
+            return true;
+        }
+
+        for (final int bot : orderValues(variant, state, slot, random)) {
+            final long[] savedNeighbourDomains = assign(state, slot, bot);
+            if (savedNeighbourDomains != null) {
+                if (searchSequentially(variant, state, random)) return true;
+            }
+            unassign(state, slot, bot, savedNeighbourDomains);
+        }
+        return false;
+    }
+
+    /**
+     * Assign slot = bot and forward-check the neighbours.
+     * Returns the neighbours' previous domains {slot, left, right} for undo, or null on a wipeout
+     * (in which case the state has already been rolled back).
+     */
+    private long[] assign(final SearchState state, final int slot, final int bot) {
+        final long[] saved = {state.domains[slot],
+                slot > 0 ? state.domains[slot - 1] : 0L,
+                slot < slotCount - 1 ? state.domains[slot + 1] : 0L};
+
+        state.assignment[slot] = bot;
+        state.domains[slot] = 1L << bot;
+        state.usage[bot]++;
+        state.assignedCount++;
+
+        if (!model.isNoBackToBackEnforced()) return saved;
+
+        final long botBit = 1L << bot;
+        for (final int neighbour : new int[]{slot - 1, slot + 1}) {
+            if (neighbour < 0 || neighbour >= slotCount || state.assignment[neighbour] != UNASSIGNED) continue;
+            state.domains[neighbour] &= ~botBit;
+            if (state.domains[neighbour] == 0L) {
+                unassign(state, slot, bot, saved);
+                return null;
+            }
+        }
+        return saved;
+    }
+
+    private void unassign(final SearchState state, final int slot, final int bot, final long[] saved) {
+        if (saved == null || state.assignment[slot] != bot) return;
+        state.assignment[slot] = UNASSIGNED;
+        state.usage[bot]--;
+        state.assignedCount--;
+        state.domains[slot] = saved[0];
+        if (slot > 0) state.domains[slot - 1] = saved[1];
+        if (slot < slotCount - 1) state.domains[slot + 1] = saved[2];
+    }
+
+    private int pickNextSlot(final Variant variant, final SearchState state) {
+        int bestSlot = UNASSIGNED;
+        int bestSize = Integer.MAX_VALUE;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (state.assignment[slot] != UNASSIGNED) continue;
+            if (!variant.useMrv) return slot;
+            final int domainSize = Long.bitCount(state.domains[slot]);
+            if (domainSize < bestSize) {
+                bestSize = domainSize;
+                bestSlot = slot;
+            }
+        }
+        return bestSlot;
+    }
+
+    private int[] orderValues(final Variant variant, final SearchState state,
+                              final int slot, final SplittableRandom random) {
+        final int[] values = IntStream.range(0, bots.size())
+                .filter(bot -> (state.domains[slot] & (1L << bot)) != 0L)
+                .toArray();
+
+        switch (variant.valueOrder) {
+            case LEAST_USED:
+                return Arrays.stream(values).boxed()
+                        .sorted(Comparator.comparingInt((Integer bot) -> state.usage[bot]).thenComparingInt(bot -> bot))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            case RANDOM:
+                for (int index = values.length - 1; index > 0; index--) {
+                    final int swapIndex = random.nextInt(index + 1);
+                    final int temp = values[index];
+                    values[index] = values[swapIndex];
+                    values[swapIndex] = temp;
+                }
+                return values;
+            default:
+                return values;
+        }
+    }
+
+    private boolean isCoverageStillFeasible(final SearchState state) {
+        if (!model.isMinimumCoverageEnforced()) return true;
+        final long missingBots = allBotsMask & ~state.usedMask();
+        if (missingBots == 0L) return true;
+
+        long openSlotBots = 0L;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (state.assignment[slot] == UNASSIGNED) openSlotBots |= state.domains[slot];
+        }
+        return (missingBots & ~openSlotBots) == 0L;
+    }
+
+    private void publishSolution(final Variant variant, final SearchState state) {
+        if (firstSolution.compareAndSet(null, state.assignment.clone())) {
+            winningVariant.set(variant.name);
+        }
+    }
+
+    private boolean isStopped() {
+        return firstSolution.get() != null;
+    }
+
+    private void displayStatistics(final double elapsedTimeSeconds) {
+        System.out.println("\n"+"-".repeat(45));
+        System.out.println("  Solver Statistics:");
+        System.out.println("    Method       : Parallel Portfolio + Work-Stealing Split");
+        System.out.printf("    Workers      : %d (split depth %d, %d variants)%n",
+                parallelism, splitDepth, portfolio.size());
+        System.out.printf("    Winner       : %s%n", Optional.ofNullable(winningVariant.get()).orElse("-"));
+        System.out.printf("    Subproblems  : %d%n", subproblemsSpawned.sum());
+        System.out.printf("    Nodes        : %d%n", nodesExplored.sum());
+        System.out.printf("    Elapsed Time : %.6f sec%n", elapsedTimeSeconds);
+        System.out.println("-".repeat(45));
+    }
+
+
+    public static void main(final String[] args) {
+        final String inputFilePath = (args.length > 0) ? args[0] : "resource/input.txt";
+        final int workers = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        try {
+            final var model = SecurityBotCSP.loadFromFile(inputFilePath);
+            final var scheduler = new ParallelBotScheduler(model, workers, DEFAULT_SPLIT_DEPTH, DEFAULT_PORTFOLIO);
+            System.out.println("Loaded CSP from: " + inputFilePath);
+            System.out.printf("Bots: %s | Slots: %d%n", model.getAvailableBots(), model.getNumberOfSlots());
+            System.out.printf("Starting parallel search on %d workers...%n", workers);
+
+            final long startTimeNanos = System.nanoTime();
+            final var schedule = scheduler.solve();
+            final double elapsedSeconds = (System.nanoTime() - startTimeNanos) / 1_000_000_000.0;
+
+            model.displayOutcome(schedule.orElse(null));
+            scheduler.displayStatistics(elapsedSeconds);
+
+        } catch (IOException exception) {
+            System.err.println("Failed to read input file: " + exception.getMessage());
+        } catch (IllegalArgumentException exception) {
+            System.err.println("Bad input: " + exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,246 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * Rolling-horizon scheduling for week- or month-long rosters.
+ * Instead of building domains for every slot up front, the scheduler solves a window of W slots,
+ * commits the first K, carries the boundary state forward (last committed bot for NoBackToBack,
+ * bots already covered for MinimumCoverage) and slides the window by K. Working memory is O(W)
+ * plus the maintenance breaks (the Slots: line is counted as it is read, never stored), and committed
+ * slots are streamed to the caller as soon as they are fixed.
+ *
+ * Committed slots are never revisited, so a window can fail even when the full problem is satisfiable;
+ * a larger W (more look-ahead) makes that less likely.
+ */
+public class RollingHorizonScheduler {
+
+    private static final int NO_BOT = -1;
+    private static final int DEFAULT_WINDOW = 24;
+    private static final int DEFAULT_COMMIT = 8;
+
+    private final List<String> bots;
+    private final boolean enforceNoBackToBack;
+    private final boolean enforceMinimumCoverage;
+    private final int totalSlots;
+    private final BiPredicate<Integer, String> isBlocked;
+    private final int windowSize;
+    private final int commitSize;
+    private final long allBotsMask;
+    // last slot of the horizon where each bot is not on a break (0 if it is on a break everywhere)
+    private final int[] lastOpenSlot;
+
+    // window buffers, reused for every window
+    private final long[] windowDomains;
+    private final int[] windowAssignment;
+    // reachableBots[i] = bots that can still be placed in window slot i or anywhere after it in the horizon
+    private final long[] reachableBots;
+
+    private int lastCommittedBot = NO_BOT;
+    private long coveredBots = 0L;
+    private int committedSlots = 0;
+    private long nodesExplored = 0;
+    private int windowsSolved = 0;
+
+    public RollingHorizonScheduler(final List<String> bots, final boolean noBackToBack, final boolean minimumCoverage,
+                                   final int totalSlots, final BiPredicate<Integer, String> isBlocked,
+                                   final int windowSize, final int commitSize) {
+        if (bots.size() >= Long.SIZE) {
+            throw new IllegalArgumentException("Rolling horizon supports at most " + (Long.SIZE - 1) + " bots");
+        }
+        if (commitSize < 1 || commitSize > windowSize) {
+            throw new IllegalArgumentException("Commit size must be between 1 and the window size");
+        }
+        this.bots = List.copyOf(bots);
+        this.enforceNoBackToBack = noBackToBack;
+        this.enforceMinimumCoverage = minimumCoverage;
+        this.totalSlots = totalSlots;
+        this.isBlocked = isBlocked;
+        this.windowSize = windowSize;
+        this.commitSize = commitSize;
+        this.allBotsMask = (1L << bots.size()) - 1;
+        this.windowDomains = new long[windowSize];
+        this.windowAssignment = new int[windowSize];
+        this.reachableBots = new long[windowSize + 1];
+        this.lastOpenSlot = findLastOpenSlots();
+    }
+
+    /**
+     * Read an input file in the SecurityBotCSP format, keeping only the maintenance breaks.
+     * No per-slot domains are built, so a month-long roster costs no more than its breaks.
+     */
+    public static RollingHorizonScheduler fromFile(final String filePath, final int windowSize, final int commitSize)
+            throws IOException {
+        final SecurityBotCSP.InputFile input = SecurityBotCSP.InputFile.read(filePath);
+        return new RollingHorizonScheduler(input.bots, input.noBackToBack, input.minimumCoverage, input.slotCount,
+                (slot, bot) -> input.blockedBotsBySlot.getOrDefault(slot, Set.of()).contains(bot),
+                windowSize, commitSize);
+    }
+
+    /**
+     * Scan back from the end of the horizon until every bot has an open slot; only a bot that is
+     * on a break almost everywhere makes this walk far.
+     */
+    private int[] findLastOpenSlots() {
+        final int[] lastOpen = new int[bots.size()];
+        long found = 0L;
+        for (int slotNumber = totalSlots; slotNumber >= 1 && found != allBotsMask; slotNumber--) {
+            for (int bot = 0; bot < bots.size(); bot++) {
+                if ((found & (1L << bot)) == 0L && !isBlocked.test(slotNumber, bots.get(bot))) {
+                    lastOpen[bot] = slotNumber;
+                    found |= 1L << bot;
+                }
+            }
+        }
+        return lastOpen;
+    }
+
+    /**
+     * Slide the window over the whole horizon, handing every committed (slot, bot) to the consumer.
+     * Returns false if some window had no valid completion given the slots already committed.
+     */
+    public boolean run(final BiConsumer<Integer, String> onCommit) {
+        int windowStart = 1;
+        while (windowStart <= totalSlots) {
+            final int windowLength = Math.min(windowSize, totalSlots - windowStart + 1);
+            loadWindowDomains(windowStart, windowLength);
+            Arrays.fill(windowAssignment, NO_BOT);
+
+            if (hasEmptyDomain(windowLength)) return false;
+            if (!solveWindow(0, windowStart, windowLength, lastCommittedBot, coveredBots)) return false;
+            windowsSolved++;
+
+            final boolean lastWindow = windowStart + windowLength > totalSlots;
+            final int toCommit = lastWindow ? windowLength : Math.min(commitSize, windowLength);
+            for (int offset = 0; offset < toCommit; offset++) {
+                final int bot = windowAssignment[offset];
+                lastCommittedBot = bot;
+                coveredBots |= 1L << bot;
+                committedSlots++;
+                onCommit.accept(windowStart + offset, bots.get(bot));
+            }
+            windowStart += toCommit;
+        }
+        return true;
+    }
+
+    private void loadWindowDomains(final int windowStart, final int windowLength) {
+        for (int offset = 0; offset < windowLength; offset++) {
+            final int slotNumber = windowStart + offset;
+            windowDomains[offset] = IntStream.range(0, bots.size())
+                    .filter(bot -> !isBlocked.test(slotNumber, bots.get(bot)))
+                    .mapToLong(bot -> 1L << bot)
+                    .reduce(0L, (left, right) -> left | right);
+        }
+
+        final int windowEnd = windowStart + windowLength - 1;
+        long reachableAfterWindow = 0L;
+        for (int bot = 0; bot < bots.size(); bot++) {
+            if (lastOpenSlot[bot] > windowEnd) reachableAfterWindow |= 1L << bot;
+        }
+        reachableBots[windowLength] = reachableAfterWindow;
+        for (int offset = windowLength - 1; offset >= 0; offset--) {
+            reachableBots[offset] = reachableBots[offset + 1] | windowDomains[offset];
+        }
+    }
+
+    /**
+     * A slot where every bot is on a break fails the window without any search.
+     */
+    private boolean hasEmptyDomain(final int windowLength) {
+        for (int offset = 0; offset < windowLength; offset++) {
+            if (windowDomains[offset] == 0L) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Depth-first search over the window in slot order. Bots not yet covered are tried first,
+     * and a branch is cut when the missing bots no longer fit into the slots left in the horizon
+     * or one of them is on a break in every remaining slot.
+     */
+    private boolean solveWindow(final int offset, final int windowStart, final int windowLength,
+                                final int previousBot, final long usedBots) {
+        nodesExplored++;
+        final long missingBots = enforceMinimumCoverage ? allBotsMask & ~usedBots : 0L;
+        final int slotsLeftInHorizon = totalSlots - (windowStart + offset) + 1;
+        if (Long.bitCount(missingBots) > slotsLeftInHorizon) return false;
+        if ((missingBots & ~reachableBots[offset]) != 0L) return false;
+        if (offset == windowLength) return true;
+
+        long candidates = windowDomains[offset];
+        if (enforceNoBackToBack && previousBot != NO_BOT) candidates &= ~(1L << previousBot);
+
+        final long preferred = candidates & missingBots;
+        for (final long group : new long[]{preferred, candidates & ~preferred}) {
+            for (long remaining = group; remaining != 0L; remaining &= remaining - 1) {
+                final int bot = Long.numberOfTrailingZeros(remaining);
+                // forward check: the next slot must keep at least one bot once this one is excluded
+                if (enforceNoBackToBack && offset + 1 < windowLength
+                        && (windowDomains[offset + 1] & ~(1L << bot)) == 0L) continue;
+                windowAssignment[offset] = bot;
+                if (solveWindow(offset + 1, windowStart, windowLength, bot, usedBots | (1L << bot))) return true;
+            }
+        }
+        windowAssignment[offset] = NO_BOT;
+        return false;
+    }
+
+    int getCommittedSlots() {
+        return committedSlots;
+    }
+
+    private void displayStatistics(final boolean completed, final double elapsedTimeSeconds) {
+        System.out.println("\n"+"-".repeat(45));
+        System.out.println("  Solver Statistics:");
+        System.out.println("    Method       : Rolling Horizon (window DFS)");
+        System.out.printf("    Window       : W=%d, commit K=%d%n", windowSize, commitSize);
+        System.out.printf("    Result       : %s%n", completed ? "complete schedule"
+                : "stopped: no valid window after slot " + committedSlots);
+        System.out.printf("    Committed    : %d of %d slots%n", committedSlots, totalSlots);
+        System.out.printf("    Windows      : %d%n", windowsSolved);
+        System.out.printf("    Nodes        : %d%n", nodesExplored);
+        System.out.printf("    Coverage     : %s%n", enforceMinimumCoverage
+                ? (coveredBots == allBotsMask ? "all bots used" : "missing " + IntStream.range(0, bots.size())
+                        .filter(bot -> (coveredBots & (1L << bot)) == 0L)
+                        .mapToObj(bots::get)
+                        .collect(Collectors.joining(", ")))
+                : "not enforced");
+        System.out.printf("    Elapsed Time : %.6f sec%n", elapsedTimeSeconds);
+        System.out.println("-".repeat(45));
+    }
+
+
+    /**
+     * java RollingHorizonScheduler input.txt [window] [commit] [quiet]
+     */
+    public static void main(final String[] args) {
+        final String inputFilePath = (args.length > 0) ? args[0] : "resource/input.txt";
+        final int window = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_WINDOW;
+        final int commit = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_COMMIT;
+        final boolean quiet = args.length > 3 && "quiet".equalsIgnoreCase(args[3]);
+
+        try {
+            final var scheduler = fromFile(inputFilePath, window, commit);
+            System.out.println("Loaded CSP from: " + inputFilePath);
+            System.out.printf("Bots: %s | Slots: %d%n", scheduler.bots, scheduler.totalSlots);
+            System.out.printf("Rolling horizon: window %d, commit %d%n%n", window, commit);
+
+            final long startTimeNanos = System.nanoTime();
+            final boolean completed = scheduler.run((slot, bot) -> {
+                if (!quiet) System.out.printf("    Slot %d  -->  Bot %s%n", slot, bot);
+            });
+            final double elapsedSeconds = (System.nanoTime() - startTimeNanos) / 1_000_000_000.0;
+
+            scheduler.displayStatistics(completed, elapsedSeconds);
+
+        } catch (IOException exception) {
+            System.err.println("Failed to read input file: " + exception.getMessage());
+        } catch (IllegalArgumentException exception) {
+            System.err.println("Bad input: " + exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/*
+ * SAT backend for the Security Bot Scheduling Problem.
+ * Compiles the bot/slot model into CNF, solves it with the bundled CdclSolver (no external process)
+ * and decodes the model back into a slot -> bot schedule.
+ *
+ * Variables: x(s, b) = "Bot b works Slot s".
+ *   exactly one bot per slot : one at-least-one clause + at-most-one (pairwise, or sequential counter)
+ *   MaintenanceBreak b s     : unit clause -x(s, b)
+ *   NoBackToBack             : -x(s, b) v -x(s+1, b)
+ *   MinimumCoverage          : at-least-one over the slots of each bot
+ */
+public class SatScheduleEncoder {
+
+    // at-most-one switches from pairwise clauses to a sequential counter above this many bots
+    private static final int PAIRWISE_AMO_LIMIT = 6;
+
+    private final SecurityBotCSP model;
+    private final List<String> bots;
+    private final int slotCount;
+    private final List<int[]> clauses = new ArrayList<>();
+    private int variableCount;
+
+    public SatScheduleEncoder(final SecurityBotCSP model) {
+        this.model = model;
+        this.bots = model.getAvailableBots();
+        this.slotCount = model.getNumberOfSlots();
+        this.variableCount = slotCount * bots.size();
+        encode();
+    }
+
+    /**
+     * Variable for "botIndex works slotNumber" (slotNumber 1-based).
+     */
+    int slotBotVariable(final int slotNumber, final int botIndex) {
+        return (slotNumber - 1) * bots.size() + botIndex + 1;
+    }
+
+    private void encode() {
+        for (int slot = 1; slot <= slotCount; slot++) {
+            final int slotNumber = slot;
+            final int[] slotLiterals = IntStream.range(0, bots.size())
+                    .map(bot -> slotBotVariable(slotNumber, bot))
+                    .toArray();
+            clauses.add(slotLiterals);
+            addAtMostOne(slotLiterals);
+
+            for (int bot = 0; bot < bots.size(); bot++) {
+                if (model.isBlocked(slot, bots.get(bot))) clauses.add(new int[]{-slotBotVariable(slot, bot)});
+                if (model.isNoBackToBackEnforced() && slot < slotCount) {
+                    clauses.add(new int[]{-slotBotVariable(slot, bot), -slotBotVariable(slot + 1, bot)});
+                }
+            }
+        }
+
+        if (model.isMinimumCoverageEnforced()) {
+            for (int bot = 0; bot < bots.size(); bot++) {
+                final int botIndex = bot;
+                clauses.add(IntStream.rangeClosed(1, slotCount)
+                        .map(slot -> slotBotVariable(slot, botIndex))
+                        .toArray());
+            }
+        }
+    }
+
+    /**
+     * At most one literal true. Pairwise for small groups (no auxiliary variables);
+     * otherwise Sinz's sequential counter, which needs O(n) clauses instead of O(n^2).
+     */
+    private void addAtMostOne(final int[] literals) {
+        if (literals.length <= PAIRWISE_AMO_LIMIT) {
+            for (int first = 0; first < literals.length; first++) {
+                for (int second = first + 1; second < literals.length; second++) {
+                    clauses.add(new int[]{-literals[first], -literals[second]});
+                }
+            }
+            return;
+        }
+
+        // counter[i] = "some literal among literals[0..i] is true"
+        final int[] counter = new int[literals.length - 1];
+        for (int index = 0; index < counter.length; index++) counter[index] = ++variableCount;
+
+        clauses.add(new int[]{-literals[0], counter[0]});
+        for (int index = 1; index < literals.length - 1; index++) {
+            clauses.add(new int[]{-literals[index], counter[index]});
+            clauses.add(new int[]{-counter[index - 1], counter[index]});
+            clauses.add(new int[]{-literals[index], -counter[index - 1]});
+        }
+        clauses.add(new int[]{-literals[literals.length - 1], -counter[literals.length - 2]});
+    }
+
+    int getVariableCount() {
+        return variableCount;
+    }
+
+    int getClauseCount() {
+        return clauses.size();
+    }
+
+    /**
+     * Load the encoding into a fresh CDCL solver.
+     */
+    CdclSolver buildSolver() {
+        final var solver = new CdclSolver(variableCount);
+        clauses.forEach(solver::addClause);
+        return solver;
+    }
+
+    /**
+     * Read the slot -> bot schedule out of a satisfying assignment.
+     */
+    Map<Integer, String> decode(final CdclSolver solver) {
+        final var schedule = new LinkedHashMap<Integer, String>();
+        for (int slot = 1; slot <= slotCount; slot++) {
+            for (int bot = 0; bot < bots.size(); bot++) {
+                if (solver.modelValue(slotBotVariable(slot, bot))) {
+                    schedule.put(slot, bots.get(bot));
+                    break;
+                }
+            }
+        }
+        return schedule;
+    }
+
+    private static void displayStatistics(final SatScheduleEncoder encoder, final CdclSolver solver,
+                                          final double elapsedTimeSeconds) {
+        System.out.println("\n"+"-".repeat(45));
+        System.out.println("  Solver Statistics:");
+        System.out.println("    Method       : CNF Encoding + CDCL (VSIDS, Luby restarts)");
+        System.out.printf("    Variables    : %d%n", encoder.getVariableCount());
+        System.out.printf("    Clauses      : %d (+%d learnt)%n", encoder.getClauseCount(), solver.getLearntClauses());
+        System.out.printf("    Decisions    : %d%n", solver.getDecisions());
+        System.out.printf("    Conflicts    : %d%n", solver.getConflicts());
+        System.out.printf("    Propagations : %d%n", solver.getPropagations());
+        System.out.printf("    Restarts     : %d%n", solver.getRestarts());
+        System.out.printf("    Elapsed Time : %.6f sec%n", elapsedTimeSeconds);
+        System.out.println("-".repeat(45));
+    }
+
+
+    public static void main(final String[] args) {
+        final String inputFilePath = (args.length > 0) ? args[0] : "resource/input.txt";
+
+        try {
+            final var model = SecurityBotCSP.loadFromFile(inputFilePath);
+            System.out.println("Loaded CSP from: " + inputFilePath);
+            System.out.printf("Bots: %s | Slots: %d%n", model.getAvailableBots(), model.getNumberOfSlots());
+            System.out.println("Encoding to CNF and running CDCL...");
+
+            final long startTimeNanos = System.nanoTime();
+            final var encoder = new SatScheduleEncoder(model);
+            final var solver = encoder.buildSolver();
+            final boolean satisfiable = solver.solve() == CdclSolver.Result.SATISFIABLE;
+            final var schedule = satisfiable ? encoder.decode(solver) : null;
+            final double elapsedSeconds = (System.nanoTime() - startTimeNanos) / 1_000_000_000.0;
+
+            model.displayOutcome(schedule);
+            displayStatistics(encoder, solver, elapsedSeconds);
+
+        } catch (IOException exception) {
+            System.err.println("Failed to read input file: " + exception.getMessage());
+        } catch (IllegalArgumentException exception) {
+            System.err.println("Bad input: " + exception.getMessage());
+        }
+    }
+}
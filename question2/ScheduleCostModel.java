@@ -0,0 +1,107 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.*;
+
+/*
+ * Cost declarations for weighted bot schedules, read from the same input file as the CSP:
+ *
+ *   Cost: Preference A 2 3        -> assigning Bot A to Slot 2 costs 3
+ *   Cost: SoftMaintenance C 1 20  -> Bot C should rest in Slot 1; violating it costs 20
+ *   Cost: SoftBackToBack 10       -> each consecutive pair with the same bot costs 10
+ *                                    (only meaningful when NoBackToBack is not a hard constraint)
+ *   Cost: Fairness 4              -> 4 per shift between the busiest and the least busy bot
+ *
+ * All costs are non-negative so the lower bounds used by branch and bound stay admissible.
+ */
+public class ScheduleCostModel {
+
+    // unaryCosts[slot - 1][botIndex]: preferences and soft maintenance breaks folded together
+    private final int[][] unaryCosts;
+    private final int backToBackPenalty;
+    private final int fairnessWeight;
+
+    private ScheduleCostModel(final int[][] unaryCosts, final int backToBackPenalty, final int fairnessWeight) {
+        this.unaryCosts = unaryCosts;
+        this.backToBackPenalty = backToBackPenalty;
+        this.fairnessWeight = fairnessWeight;
+    }
+
+    public static ScheduleCostModel loadFromFile(final String filePath, final SecurityBotCSP model) throws IOException {
+        final List<String> bots = model.getAvailableBots();
+        final int[][] unaryCosts = new int[model.getNumberOfSlots()][bots.size()];
+        int backToBackPenalty = 0;
+        int fairnessWeight = 0;
+
+        try (final var fileReader = new BufferedReader(new FileReader(filePath))) {
+            String currentLine;
+            while ((currentLine = fileReader.readLine()) != null) {
+                final String trimmedLine = currentLine.strip();
+                if (!trimmedLine.startsWith("Cost:")) continue;
+
+                final String[] costTokens = trimmedLine.substring(5).strip().split("\\s+");
+                final String costKind = costTokens[0].toLowerCase();
+
+                if ((costKind.equals("preference") || costKind.equals("softmaintenance")) && costTokens.length >= 4) {
+                    final int botIndex = bots.indexOf(costTokens[1]);
+                    final int slotNumber = Integer.parseInt(costTokens[2]);
+                    if (botIndex < 0 || slotNumber < 1 || slotNumber > unaryCosts.length) {
+                        throw new IllegalArgumentException("Unknown bot or slot in cost line: " + trimmedLine);
+                    }
+                    unaryCosts[slotNumber - 1][botIndex] += parseNonNegative(costTokens[3], trimmedLine);
+                } else if (costKind.equals("softbacktoback") && costTokens.length >= 2) {
+                    backToBackPenalty = parseNonNegative(costTokens[1], trimmedLine);
+                } else if (costKind.equals("fairness") && costTokens.length >= 2) {
+                    fairnessWeight = parseNonNegative(costTokens[1], trimmedLine);
+                } else {
+                    throw new IllegalArgumentException("Unrecognised cost line: " + trimmedLine);
+                }
+            }
+        }
+        return new ScheduleCostModel(unaryCosts, backToBackPenalty, fairnessWeight);
+    }
+
+    private static int parseNonNegative(final String token, final String line) {
+        final int value = Integer.parseInt(token);
+        if (value < 0) throw new IllegalArgumentException("Costs must be non-negative: " + line);
+        return value;
+    }
+
+    /**
+     * Cost of placing the bot at the given 0-based slot index.
+     */
+    int unaryCost(final int slotIndex, final int botIndex) {
+        return unaryCosts[slotIndex][botIndex];
+    }
+
+    int backToBackPenalty() {
+        return backToBackPenalty;
+    }
+
+    int fairnessWeight() {
+        return fairnessWeight;
+    }
+
+    /**
+     * Fairness term for final shift counts: weight * (max shifts - min shifts).
+     */
+    int fairnessCost(final int[] shiftsPerBot) {
+        if (fairnessWeight == 0 || shiftsPerBot.length == 0) return 0;
+        final IntSummaryStatistics shiftStats = Arrays.stream(shiftsPerBot).summaryStatistics();
+        return fairnessWeight * (shiftStats.getMax() - shiftStats.getMin());
+    }
+
+    /**
+     * Total cost of a complete schedule (array of bot indices, index 0 = Slot 1).
+     */
+    int totalCost(final int[] assignment, final int botCount) {
+        final int[] shiftsPerBot = new int[botCount];
+        int cost = 0;
+        for (int slot = 0; slot < assignment.length; slot++) {
+            cost += unaryCosts[slot][assignment[slot]];
+            if (slot > 0 && assignment[slot] == assignment[slot - 1]) cost += backToBackPenalty;
+            shiftsPerBot[assignment[slot]]++;
+        }
+        return cost + fairnessCost(shiftsPerBot);
+    }
+}
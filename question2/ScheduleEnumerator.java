@@ -0,0 +1,230 @@
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Enumerates and counts every valid schedule of the Security Bot Scheduling Problem.
+ * Solutions are produced lazily by an explicit-stack depth-first search (one slot per level),
+ * so memory stays at one partial schedule no matter how many solutions are consumed.
+ * Counting uses a slot-by-slot dynamic program and never builds a schedule.
+ */
+public class ScheduleEnumerator {
+
+    private static final int NO_BOT = -1;
+    private static final int DEFAULT_PRINT_LIMIT = 10;
+
+    private final SecurityBotCSP model;
+    private final List<String> bots;
+    private final int slotCount;
+    private final long[] domainMasks;
+    private final long allBotsMask;
+    // suffixBots[i] = bots that can still be placed in slots i..end (used to prune coverage dead ends)
+    private final long[] suffixBots;
+
+    public ScheduleEnumerator(final SecurityBotCSP model) {
+        this.model = model;
+        this.bots = model.getAvailableBots();
+        this.slotCount = model.getNumberOfSlots();
+        this.domainMasks = model.buildDomainMasks();
+        this.allBotsMask = (1L << bots.size()) - 1;
+
+        this.suffixBots = new long[slotCount + 1];
+        for (int slot = slotCount - 1; slot >= 0; slot--) {
+            suffixBots[slot] = suffixBots[slot + 1] | domainMasks[slot];
+        }
+    }
+
+    /**
+     * Lazily iterate over every valid schedule. Each schedule is an immutable list where
+     * index i holds the bot assigned to Slot i+1.
+     */
+    public Iterator<List<String>> iterator() {
+        return new SolutionIterator();
+    }
+
+    /**
+     * Stream view over {@link #iterator()}; nothing is searched until the stream is consumed.
+     */
+    public Stream<List<String>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * Count all valid schedules without materialising them.
+     * Slots are swept left to right; the state after a prefix only matters through its canonical key
+     * (last bot if NoBackToBack is enforced, set of used bots if MinimumCoverage is enforced), so
+     * prefixes sharing a key are merged and their counts added.
+     */
+    public BigInteger countSolutions() {
+        Map<PrefixKey, BigInteger> countsByKey = new HashMap<>();
+        countsByKey.put(canonicalKey(NO_BOT, 0L), BigInteger.ONE);
+
+        for (int slot = 0; slot < slotCount; slot++) {
+            final Map<PrefixKey, BigInteger> nextCounts = new HashMap<>();
+            final int remainingAfter = slotCount - slot - 1;
+
+            for (final Map.Entry<PrefixKey, BigInteger> entry : countsByKey.entrySet()) {
+                final int lastBot = entry.getKey().lastBot;
+                final long usedBots = entry.getKey().usedBots;
+
+                for (int bot = 0; bot < bots.size(); bot++) {
+                    if (!isAllowed(slot, bot, lastBot)) continue;
+                    final long nextUsed = usedBots | (1L << bot);
+                    if (!canStillCover(nextUsed, slot + 1, remainingAfter)) continue;
+                    nextCounts.merge(canonicalKey(bot, nextUsed), entry.getValue(), BigInteger::add);
+                }
+            }
+            countsByKey = nextCounts;
+        }
+
+        return countsByKey.values().stream().reduce(BigInteger.ZERO, BigInteger::add);
+    }
+
+    /**
+     * Canonical state of a prefix. Kept as two fields: packing the last bot above a 63-bot mask overflows a long.
+     */
+    private static final class PrefixKey {
+        final int lastBot;
+        final long usedBots;
+
+        PrefixKey(final int lastBot, final long usedBots) {
+            this.lastBot = lastBot;
+            this.usedBots = usedBots;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof PrefixKey)) return false;
+            final PrefixKey key = (PrefixKey) other;
+            return lastBot == key.lastBot && usedBots == key.usedBots;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * lastBot + Long.hashCode(usedBots);
+        }
+    }
+
+    private PrefixKey canonicalKey(final int lastBot, final long usedBots) {
+        return new PrefixKey(model.isNoBackToBackEnforced() ? lastBot : NO_BOT,
+                model.isMinimumCoverageEnforced() ? usedBots : 0L);
+    }
+
+    private boolean isAllowed(final int slot, final int bot, final int previousBot) {
+        if ((domainMasks[slot] & (1L << bot)) == 0L) return false;
+        return !model.isNoBackToBackEnforced() || bot != previousBot;
+    }
+
+    private boolean canStillCover(final long usedBots, final int nextSlot, final int remainingSlots) {
+        if (!model.isMinimumCoverageEnforced()) return true;
+        final long missingBots = allBotsMask & ~usedBots;
+        return Long.bitCount(missingBots) <= remainingSlots && (missingBots & ~suffixBots[nextSlot]) == 0L;
+    }
+
+    /**
+     * Explicit-stack DFS in slot order. candidates[i] holds the bots not yet tried at slot i,
+     * so resuming after a solution simply continues from the deepest level.
+     */
+    private final class SolutionIterator implements Iterator<List<String>> {
+        private final int[] assignment = new int[slotCount];
+        private final long[] candidates = new long[slotCount];
+        private final long[] usedBefore = new long[slotCount + 1];
+        private int depth;
+        private List<String> pending;
+        private boolean exhausted;
+
+        SolutionIterator() {
+            Arrays.fill(assignment, NO_BOT);
+            if (slotCount > 0) candidates[0] = domainMasks[0];
+            depth = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending == null && !exhausted) pending = advance();
+            return pending != null;
+        }
+
+        @Override
+        public List<String> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            final List<String> schedule = pending;
+            pending = null;
+            return schedule;
+        }
+
+        private List<String> advance() {
+            while (depth >= 0) {
+                if (depth == slotCount) {
+                    final List<String> schedule = toSchedule();
+                    depth--;
+                    return schedule;
+                }
+                if (candidates[depth] == 0L) {
+                    depth--;
+                    continue;
+                }
+
+                final int bot = Long.numberOfTrailingZeros(candidates[depth]);
+                candidates[depth] &= candidates[depth] - 1;
+
+                final int previousBot = depth > 0 ? assignment[depth - 1] : NO_BOT;
+                if (!isAllowed(depth, bot, previousBot)) continue;
+                final long nextUsed = usedBefore[depth] | (1L << bot);
+                if (!canStillCover(nextUsed, depth + 1, slotCount - depth - 1)) continue;
+
+                assignment[depth] = bot;
+                usedBefore[depth + 1] = nextUsed;
+                depth++;
+                if (depth < slotCount) candidates[depth] = domainMasks[depth];
+            }
+            exhausted = true;
+            return null;
+        }
+
+        private List<String> toSchedule() {
+            final String[] names = new String[slotCount];
+            for (int slot = 0; slot < slotCount; slot++) {
+                names[slot] = bots.get(assignment[slot]);
+            }
+            return List.of(names);
+        }
+    }
+
+
+    public static void main(final String[] args) {
+        final String inputFilePath = (args.length > 0) ? args[0] : "resource/input.txt";
+        final int printLimit = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PRINT_LIMIT;
+
+        try {
+            final var enumerator = new ScheduleEnumerator(SecurityBotCSP.loadFromFile(inputFilePath));
+            System.out.println("Loaded CSP from: " + inputFilePath);
+            System.out.printf("Bots: %s | Slots: %d%n", enumerator.bots, enumerator.slotCount);
+
+            final long countStartNanos = System.nanoTime();
+            final BigInteger solutionCount = enumerator.countSolutions();
+            final double countSeconds = (System.nanoTime() - countStartNanos) / 1_000_000_000.0;
+
+            System.out.println();
+            System.out.printf("  Valid schedules: %s (counted in %.6f sec)%n", solutionCount, countSeconds);
+            System.out.printf("  First %d schedules (Slot 1 .. Slot %d):%n", printLimit, enumerator.slotCount);
+
+            final long streamStartNanos = System.nanoTime();
+            final var solutionNumber = new int[]{0};
+            enumerator.stream()
+                    .limit(printLimit)
+                    .forEach(schedule -> System.out.printf("    #%d  %s%n",
+                            ++solutionNumber[0], String.join(" ", schedule)));
+            final double streamSeconds = (System.nanoTime() - streamStartNanos) / 1_000_000_000.0;
+            System.out.printf("  Streamed %d schedules in %.6f sec%n", solutionNumber[0], streamSeconds);
+
+        } catch (IOException exception) {
+            System.err.println("Failed to read input file: " + exception.getMessage());
+        } catch (IllegalArgumentException exception) {
+            System.err.println("Bad input: " + exception.getMessage());
+        }
+    }
+}
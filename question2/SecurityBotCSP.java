@@ -1,13 +1,18 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /*
  * CSP Solver for Security Bot Scheduling Problem
- * Uses Backtracking + MRV heuristic + Forward Checking
+ * Uses Backtracking + MRV heuristic + Forward Checking,
+ * with conflict-directed backjumping (CBJ), a bounded nogood store
+ * and value-symmetry breaking for interchangeable bots.
+ * The search runs on an explicit stack, so rosters with hundreds of thousands of slots do not overflow the thread stack
  */
 public class SecurityBotCSP {
 
@@ -22,6 +27,182 @@ public class SecurityBotCSP {
     private int totalAssignments = 0;
     private int totalBacktracks = 0;
     private int totalInferences = 0;
+    private int totalBackjumps = 0;
+    private int totalNogoodPrunes = 0;
+    private int totalSymmetrySkips = 0;
+
+    // Incremental bookkeeping so each search node costs O(bots + log slots) instead of a scan of every slot
+    private final Map<String, Integer> botIndexByName;
+    private final int[] assignedCountByBot;
+    // number of unassigned slots whose domain still contains each bot
+    private final int[] openSlotsWithBot;
+    // unassigned slots grouped by current domain size; MRV takes the lowest slot of the smallest non-empty group
+    private final List<TreeSet<Integer>> unassignedSlotsByDomainSize;
+    private int usedBotCount = 0;
+
+    // Bots with identical maintenance breaks are interchangeable; each maps to its class representative
+    private final Map<String, String> symmetryClassRepresentative;
+
+    // Slots whose forward checks removed values from each slot's domain (the FC part of the conflict set)
+    private final Map<Integer, List<Integer>> pruningSourcesBySlot;
+    private final NogoodStore nogoodStore = new NogoodStore(NOGOOD_CAPACITY, MAX_NOGOOD_LENGTH);
+
+    // Optional preferred bot per slot (e.g. from local search), tried first when the slot is branched on
+    private Map<Integer, String> valueHints = Map.of();
+    private boolean traceEnabled = true;
+    private SearchBudget searchBudget = SearchBudget.unlimited();
+    private SearchStatus searchStatus;
+
+    private static final int NOGOOD_CAPACITY = 512;
+    private static final int MAX_NOGOOD_LENGTH = 16;
+
+    /**
+     * How the last search ended. TIMEOUT, BUDGET_EXCEEDED and CANCELLED leave a partial assignment.
+     */
+    enum SearchStatus {
+        SOLVED,
+        UNSATISFIABLE,
+        TIMEOUT,
+        BUDGET_EXCEEDED,
+        CANCELLED
+    }
+
+    /**
+     * Limits for one search: a wall-clock deadline, a cap on assignments tried and a cancellation flag that
+     * another thread may set. Checked once per search node.
+     */
+    static final class SearchBudget {
+        static final long UNLIMITED = Long.MAX_VALUE;
+
+        private final long deadline;
+        private final long maxAssignments;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        SearchBudget(final long timeoutMillis, final long maxAssignments) {
+            final long now = System.currentTimeMillis();
+            this.deadline = timeoutMillis >= UNLIMITED - now ? UNLIMITED : now + timeoutMillis;
+            this.maxAssignments = maxAssignments;
+        }
+
+        static SearchBudget unlimited() {
+            return new SearchBudget(UNLIMITED, UNLIMITED);
+        }
+
+        void cancel() {
+            cancelled.set(true);
+        }
+
+        /**
+         * The reason to stop now, or null to keep searching.
+         */
+        SearchStatus check(final long assignments) {
+            if (cancelled.get()) return SearchStatus.CANCELLED;
+            if (assignments > maxAssignments) return SearchStatus.BUDGET_EXCEEDED;
+            if (deadline != UNLIMITED && System.currentTimeMillis() > deadline) return SearchStatus.TIMEOUT;
+            return null;
+        }
+    }
+
+    /**
+     * Result of searching below the current partial assignment.
+     * On failure, conflictSlots holds the assigned slots responsible for it.
+     */
+    private static final class SearchOutcome {
+        static final SearchOutcome SOLVED = new SearchOutcome(true, Set.of());
+        // the budget ran out: unwind without touching the partial assignment
+        static final SearchOutcome STOPPED = new SearchOutcome(false, Set.of());
+
+        final boolean solved;
+        final Set<Integer> conflictSlots;
+
+        private SearchOutcome(final boolean solved, final Set<Integer> conflictSlots) {
+            this.solved = solved;
+            this.conflictSlots = conflictSlots;
+        }
+
+        static SearchOutcome failure(final Set<Integer> conflictSlots) {
+            return new SearchOutcome(false, conflictSlots);
+        }
+    }
+
+    /**
+     * One level of the explicit search stack: the slot branched on, its remaining candidates and
+     * the conflict set gathered so far. forwardChanges undoes the pruning of the current candidate.
+     */
+    private static final class BranchPoint {
+        final int slot;
+        final List<String> candidates;
+        final Set<Integer> conflictSet;
+        final Map<String, String> triedUnusedByClass = new HashMap<>();
+        int nextCandidate = 0;
+        String assignedBot;
+        List<int[]> forwardChanges;
+
+        BranchPoint(final int slot, final List<String> candidates, final Set<Integer> conflictSet) {
+            this.slot = slot;
+            this.candidates = candidates;
+            this.conflictSet = conflictSet;
+        }
+    }
+
+    /**
+     * Bounded store of learned nogoods (partial assignments that cannot be extended to a solution).
+     * Oldest nogoods are evicted first once the capacity is reached.
+     */
+    private static final class NogoodStore {
+        private final int capacity;
+        private final int maxLength;
+        private final Deque<Map<Integer, String>> insertionOrder = new ArrayDeque<>();
+        private final Map<Integer, Map<String, List<Map<Integer, String>>>> nogoodsByLiteral = new HashMap<>();
+        private int learnedCount = 0;
+
+        NogoodStore(final int capacity, final int maxLength) {
+            this.capacity = capacity;
+            this.maxLength = maxLength;
+        }
+
+        boolean record(final Map<Integer, String> nogood) {
+            if (nogood.isEmpty() || nogood.size() > maxLength) return false;
+            if (insertionOrder.contains(nogood)) return false;
+
+            if (insertionOrder.size() >= capacity) {
+                final Map<Integer, String> evicted = insertionOrder.removeFirst();
+                evicted.forEach((slot, bot) -> nogoodsByLiteral.get(slot).get(bot).remove(evicted));
+            }
+            insertionOrder.addLast(nogood);
+            nogood.forEach((slot, bot) -> nogoodsByLiteral
+                    .computeIfAbsent(slot, key -> new HashMap<>())
+                    .computeIfAbsent(bot, key -> new ArrayList<>())
+                    .add(nogood));
+            learnedCount++;
+            return true;
+        }
+
+        /**
+         * Find a stored nogood that would be completed by assigning slot = bot on top of the schedule.
+         */
+        Optional<Map<Integer, String>> findViolated(final int slot, final String bot,
+                                                    final Map<Integer, String> schedule) {
+            final List<Map<Integer, String>> candidates = nogoodsByLiteral
+                    .getOrDefault(slot, Map.of())
+                    .getOrDefault(bot, List.of());
+            for (final Map<Integer, String> nogood : candidates) {
+                final boolean violated = nogood.entrySet().stream()
+                        .allMatch(literal -> literal.getKey() == slot
+                                || literal.getValue().equals(schedule.get(literal.getKey())));
+                if (violated) return Optional.of(nogood);
+            }
+            return Optional.empty();
+        }
+
+        int size() {
+            return insertionOrder.size();
+        }
+
+        int learnedCount() {
+            return learnedCount;
+        }
+    }
 
 
     public SecurityBotCSP(final List<String> bots, final int slots,
@@ -32,72 +213,174 @@ public class SecurityBotCSP {
         this.enforceNoBackToBack = noBackToBack;
         this.enforceMinimumCoverage = minimumCoverage;
         this.blockedBotsBySlot = Map.copyOf(blocked);
+        this.symmetryClassRepresentative = detectInterchangeableBots();
         this.assignedSchedule = new LinkedHashMap<>();
 
         this.slotDomains = new LinkedHashMap<>();
-        IntStream.rangeClosed(1, numberOfSlots)
-                .forEach(slotNumber -> slotDomains.put(slotNumber, new ArrayList<>(availableBots)));
+        this.pruningSourcesBySlot = new HashMap<>();
+        IntStream.rangeClosed(1, numberOfSlots).forEach(slotNumber -> {
+            slotDomains.put(slotNumber, new ArrayList<>(availableBots));
+            pruningSourcesBySlot.put(slotNumber, new ArrayList<>());
+        });
+
+        this.botIndexByName = new HashMap<>();
+        IntStream.range(0, availableBots.size()).forEach(index -> botIndexByName.put(availableBots.get(index), index));
+        this.assignedCountByBot = new int[availableBots.size()];
+        this.openSlotsWithBot = new int[availableBots.size()];
+        Arrays.fill(openSlotsWithBot, numberOfSlots);
+        this.unassignedSlotsByDomainSize = new ArrayList<>();
+        IntStream.rangeClosed(0, availableBots.size()).forEach(size -> unassignedSlotsByDomainSize.add(new TreeSet<>()));
+        IntStream.rangeClosed(1, numberOfSlots).forEach(unassignedSlotsByDomainSize.get(availableBots.size())::add);
     }
 
 
-    public static SecurityBotCSP loadFromFile(final String filePath) throws IOException {
-        final var botList = new ArrayList<String>();
+    /**
+     * Contents of an input file, shared by every scheduler that reads this format. The Slots: line is
+     * counted as it streams in and never held as one string, so a month-long roster costs no more than
+     * its other lines.
+     */
+    static final class InputFile {
+        private static final String SLOTS_PREFIX = "Slots:";
+
+        final List<String> bots = new ArrayList<>();
         int slotCount = 0;
-        boolean hasNoBackToBack = false;
-        boolean hasMinimumCoverage = false;
-        final var blockedBotsMap = new HashMap<Integer, Set<String>>();
-
-        try (final var fileReader = new BufferedReader(new FileReader(filePath))) {
-            String currentLine;
-            while ((currentLine = fileReader.readLine()) != null) {
-                final String trimmedLine = currentLine.strip();
-                if (trimmedLine.isBlank() || trimmedLine.startsWith("#")) continue;
-
-                if (trimmedLine.startsWith("Bots:")) {
-                    Arrays.stream(trimmedLine.substring(5).split(","))
-                            .map(String::strip)
-                            .filter(token -> !token.isEmpty())
-                            .forEach(botList::add);
-
-                } else if (trimmedLine.startsWith("Slots:")) {
-                    slotCount = (int) Arrays.stream(trimmedLine.substring(6).split(","))
-                            .map(String::strip)
-                            .filter(token -> !token.isEmpty())
-                            .count();
-
-                } else if (trimmedLine.startsWith("Constraint:")) {
-                    final String constraintBody = trimmedLine.substring(11).strip();
-
-                    if (constraintBody.equalsIgnoreCase("NoBackToBack")) {
-                        hasNoBackToBack = true;
-                    } else if (constraintBody.equalsIgnoreCase("MinimumCoverage")) {
-                        hasMinimumCoverage = true;
-                    } else if (constraintBody.toLowerCase().startsWith("maintenancebreak")) {
-                        final String[] constraintTokens = constraintBody.split("\\s+");
-                        if (constraintTokens.length >= 3) {
-                            final String blockedBot = constraintTokens[1];
-                            final int blockedSlot = Integer.parseInt(constraintTokens[2]);
-                            blockedBotsMap.computeIfAbsent(blockedSlot, key -> new HashSet<>())
-                                    .add(blockedBot);
+        boolean noBackToBack = false;
+        boolean minimumCoverage = false;
+        final Map<Integer, Set<String>> blockedBotsBySlot = new HashMap<>();
+
+        private InputFile() {
+        }
+
+        static InputFile read(final String filePath) throws IOException {
+            final InputFile input = new InputFile();
+            try (final var fileReader = new BufferedReader(new FileReader(filePath))) {
+                final StringBuilder line = new StringBuilder();
+                int next;
+                do {
+                    next = fileReader.read();
+                    if (next == '\n' || next == -1) {
+                        input.parseLine(line.toString().strip());
+                        line.setLength(0);
+                    } else if (line.length() > 0 || !Character.isWhitespace(next)) {
+                        line.append((char) next);
+                        if (line.length() == SLOTS_PREFIX.length() && SLOTS_PREFIX.contentEquals(line)) {
+                            input.slotCount = countSlotTokens(fileReader);
+                            line.setLength(0);
                         }
                     }
+                } while (next != -1);
+            }
+
+            if (input.bots.isEmpty()) throw new IllegalArgumentException("No bots defined in input file!");
+            if (input.slotCount == 0) throw new IllegalArgumentException("No slots defined in input file!");
+            return input;
+        }
+
+        private void parseLine(final String trimmedLine) {
+            if (trimmedLine.isBlank() || trimmedLine.startsWith("#")) return;
+
+            if (trimmedLine.startsWith("Bots:")) {
+                Arrays.stream(trimmedLine.substring(5).split(","))
+                        .map(String::strip)
+                        .filter(token -> !token.isEmpty())
+                        .forEach(bots::add);
+
+            } else if (trimmedLine.startsWith("Constraint:")) {
+                final String constraintBody = trimmedLine.substring(11).strip();
+
+                if (constraintBody.equalsIgnoreCase("NoBackToBack")) {
+                    noBackToBack = true;
+                } else if (constraintBody.equalsIgnoreCase("MinimumCoverage")) {
+                    minimumCoverage = true;
+                } else if (constraintBody.toLowerCase().startsWith("maintenancebreak")) {
+                    final String[] constraintTokens = constraintBody.split("\\s+");
+                    if (constraintTokens.length >= 3) {
+                        final String blockedBot = constraintTokens[1];
+                        final int blockedSlot = Integer.parseInt(constraintTokens[2]);
+                        blockedBotsBySlot.computeIfAbsent(blockedSlot, key -> new HashSet<>())
+                                .add(blockedBot);
+                    }
                 }
             }
         }
 
-        if (botList.isEmpty()) throw new IllegalArgumentException("No bots defined in input file!");
-        if (slotCount == 0) throw new IllegalArgumentException("No slots defined in input file!");
+        /**
+         * Count the non-empty comma-separated tokens up to the end of the line, reading one character at a time.
+         */
+        private static int countSlotTokens(final Reader reader) throws IOException {
+            int count = 0;
+            boolean tokenHasText = false;
+            for (int next = reader.read(); next != '\n' && next != -1; next = reader.read()) {
+                if (next == ',') {
+                    if (tokenHasText) count++;
+                    tokenHasText = false;
+                } else if (!Character.isWhitespace(next)) {
+                    tokenHasText = true;
+                }
+            }
+            return tokenHasText ? count + 1 : count;
+        }
+    }
+
+    public static SecurityBotCSP loadFromFile(final String filePath) throws IOException {
+        final InputFile input = InputFile.read(filePath);
+        return new SecurityBotCSP(input.bots, input.slotCount, input.noBackToBack, input.minimumCoverage,
+                input.blockedBotsBySlot);
+    }
+
+    /**
+     * Group bots whose constraints are identical (same maintenance breaks; NoBackToBack and
+     * MinimumCoverage treat all bots alike). Any two bots in a class can be swapped in a schedule.
+     */
+    private Map<String, String> detectInterchangeableBots() {
+        final var representativeBySignature = new HashMap<Set<Integer>, String>();
+        final var representatives = new LinkedHashMap<String, String>();
+        for (final String botName : availableBots) {
+            final Set<Integer> blockedSlots = blockedBotsBySlot.entrySet().stream()
+                    .filter(entry -> entry.getValue().contains(botName))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            representatives.put(botName, representativeBySignature.computeIfAbsent(blockedSlots, key -> botName));
+        }
+        return representatives;
+    }
 
-        return new SecurityBotCSP(botList, slotCount, hasNoBackToBack, hasMinimumCoverage, blockedBotsMap);
+    /**
+     * Interchangeable bot classes with more than one member, e.g. [[A, B]].
+     */
+    List<List<String>> getInterchangeableBotClasses() {
+        return availableBots.stream()
+                .collect(Collectors.groupingBy(symmetryClassRepresentative::get, LinkedHashMap::new, Collectors.toList()))
+                .values().stream()
+                .filter(botClass -> botClass.size() > 1)
+                .collect(Collectors.toList());
     }
 
     private OptionalInt pickNextSlotByMRV() {
-        return IntStream.rangeClosed(1, numberOfSlots)
-                .filter(slot -> !assignedSchedule.containsKey(slot))
-                .boxed()
-                .min(Comparator.comparingInt(slot -> slotDomains.get(slot).size()))
-                .map(OptionalInt::of)
-                .orElse(OptionalInt.empty());
+        for (final TreeSet<Integer> slotsOfSize : unassignedSlotsByDomainSize) {
+            if (!slotsOfSize.isEmpty()) return OptionalInt.of(slotsOfSize.first());
+        }
+        return OptionalInt.empty();
+    }
+
+    private void assign(final int slotNumber, final String botName) {
+        assignedSchedule.put(slotNumber, botName);
+        final List<String> domain = slotDomains.get(slotNumber);
+        unassignedSlotsByDomainSize.get(domain.size()).remove(slotNumber);
+        domain.forEach(domainBot -> openSlotsWithBot[botIndexByName.get(domainBot)]--);
+        if (assignedCountByBot[botIndexByName.get(botName)]++ == 0) usedBotCount++;
+    }
+
+    private void unassign(final int slotNumber) {
+        final String botName = assignedSchedule.remove(slotNumber);
+        final List<String> domain = slotDomains.get(slotNumber);
+        unassignedSlotsByDomainSize.get(domain.size()).add(slotNumber);
+        domain.forEach(domainBot -> openSlotsWithBot[botIndexByName.get(domainBot)]++);
+        if (--assignedCountByBot[botIndexByName.get(botName)] == 0) usedBotCount--;
+    }
+
+    private boolean isUsed(final String botName) {
+        return assignedCountByBot[botIndexByName.get(botName)] > 0;
     }
 
     private boolean isConsistentAssignment(final int slotNumber, final String botName) {
@@ -119,22 +402,29 @@ public class SecurityBotCSP {
     private boolean isCoverageStillFeasible() {
         if (!enforceMinimumCoverage) return true;
 
-        final var alreadyAssignedBots = new HashSet<>(assignedSchedule.values());
-        for (final String botName : availableBots) {
-            if (alreadyAssignedBots.contains(botName)) continue;
-
-            final boolean hasOpenSlot = IntStream.rangeClosed(1, numberOfSlots)
-                    .filter(slot -> !assignedSchedule.containsKey(slot))
-                    .anyMatch(slot -> slotDomains.get(slot).contains(botName));
-
-            if (!hasOpenSlot) return false;
+        for (int botIndex = 0; botIndex < availableBots.size(); botIndex++) {
+            if (assignedCountByBot[botIndex] == 0 && openSlotsWithBot[botIndex] == 0) return false;
         }
         return true;
     }
 
+    /**
+     * Assigned slots that explain a coverage failure: an unused bot could only be placed by
+     * reassigning one of the slots where it is not blocked, since forward checking never prunes unused bots.
+     */
+    private Set<Integer> explainCoverageFailure() {
+        final var alreadyAssignedBots = new HashSet<>(assignedSchedule.values());
+        final var conflictSlots = new HashSet<Integer>();
+        availableBots.stream()
+                .filter(botName -> !alreadyAssignedBots.contains(botName))
+                .forEach(botName -> assignedSchedule.keySet().stream()
+                        .filter(slot -> !blockedBotsBySlot.getOrDefault(slot, Set.of()).contains(botName))
+                        .forEach(conflictSlots::add));
+        return conflictSlots;
+    }
+
     private boolean isMinimumCoverageSatisfied() {
-        final var usedBots = new HashSet<>(assignedSchedule.values());
-        return availableBots.stream().allMatch(usedBots::contains);
+        return usedBotCount == availableBots.size();
     }
 
     private Optional<List<int[]>> applyForwardChecking(final int assignedSlot, final String assignedBot) {
@@ -152,16 +442,20 @@ public class SecurityBotCSP {
             final int indexToRemove = neighbourDomain.indexOf(assignedBot);
 
             if (indexToRemove >= 0) {
+                unassignedSlotsByDomainSize.get(neighbourDomain.size()).remove(neighbourSlot);
                 neighbourDomain.remove(indexToRemove);
-                final int botIndexInMasterList = availableBots.indexOf(assignedBot);
+                unassignedSlotsByDomainSize.get(neighbourDomain.size()).add(neighbourSlot);
+                final int botIndexInMasterList = botIndexByName.get(assignedBot);
+                openSlotsWithBot[botIndexInMasterList]--;
                 domainChanges.add(new int[]{neighbourSlot, botIndexInMasterList});
+                pruningSourcesBySlot.get(neighbourSlot).add(assignedSlot);
                 totalInferences++;
 
-                System.out.printf("    -> Forward Check: pruned '%s' from Slot%d's domain%n",
+                trace("    -> Forward Check: pruned '%s' from Slot%d's domain%n",
                         assignedBot, neighbourSlot);
 
                 if (neighbourDomain.isEmpty()) {
-                    System.out.printf("    !! Domain wipeout at Slot%d - triggering backtrack%n",
+                    trace("    !! Domain wipeout at Slot%d - triggering backtrack%n",
                             neighbourSlot);
                     domainWipeoutDetected = true;
                     break;
@@ -186,60 +480,244 @@ public class SecurityBotCSP {
 
             int insertionPoint = 0;
             while (insertionPoint < targetDomain.size()
-                    && availableBots.indexOf(targetDomain.get(insertionPoint)) < botMasterIndex) {
+                    && botIndexByName.get(targetDomain.get(insertionPoint)) < botMasterIndex) {
                 insertionPoint++;
             }
+            unassignedSlotsByDomainSize.get(targetDomain.size()).remove(targetSlot);
             targetDomain.add(insertionPoint, botToRestore);
+            unassignedSlotsByDomainSize.get(targetDomain.size()).add(targetSlot);
+            openSlotsWithBot[botMasterIndex]++;
+
+            final List<Integer> pruningSources = pruningSourcesBySlot.get(targetSlot);
+            pruningSources.remove(pruningSources.size() - 1);
         }
     }
 
     private boolean solveByBacktracking() {
-        if (!isCoverageStillFeasible()) return false;
+        searchStatus = null;
+        final SearchOutcome outcome = searchWithBackjumping();
+        if (outcome != SearchOutcome.STOPPED) {
+            searchStatus = outcome.solved ? SearchStatus.SOLVED : SearchStatus.UNSATISFIABLE;
+        }
+        return outcome.solved;
+    }
+
+    /**
+     * FC-CBJ: each failure returns the set of assigned slots that caused it. When a child's
+     * conflict set does not contain the current slot, no other value here can help, so the
+     * search jumps straight back to the deepest responsible slot.
+     * Each stack entry is one level of the classic recursive formulation.
+     */
+    private SearchOutcome searchWithBackjumping() {
+        final Deque<BranchPoint> branchPoints = new ArrayDeque<>();
+        SearchOutcome outcome = openBranchPoint(branchPoints);
+
+        while (true) {
+            if (outcome == null) {
+                final BranchPoint current = branchPoints.peek();
+                outcome = assignNextCandidate(current) ? openBranchPoint(branchPoints) : exhaust(branchPoints.pop());
+                continue;
+            }
+            if (branchPoints.isEmpty() || outcome.solved || outcome == SearchOutcome.STOPPED) return outcome;
+
+            final BranchPoint parent = branchPoints.peek();
+            restorePrunedDomains(parent.forwardChanges);
+            unassign(parent.slot);
+
+            if (!outcome.conflictSlots.contains(parent.slot)) {
+                totalBackjumps++;
+                trace("  << Backjump over Slot%d = %s (not in conflict set %s)%n",
+                        parent.slot, parent.assignedBot, formatSlots(outcome.conflictSlots));
+                branchPoints.pop();
+                continue;
+            }
+            parent.conflictSet.addAll(outcome.conflictSlots);
+            totalBacktracks++;
+            trace("  << Backtrack from Slot%d = %s%n", parent.slot, parent.assignedBot);
+            outcome = null;
+        }
+    }
+
+    /**
+     * Enter a new search node: stop, succeed or fail right away, or push the MRV slot and return null.
+     */
+    private SearchOutcome openBranchPoint(final Deque<BranchPoint> branchPoints) {
+        searchStatus = searchBudget.check(totalAssignments);
+        if (searchStatus != null) return SearchOutcome.STOPPED;
+        if (!isCoverageStillFeasible()) return SearchOutcome.failure(explainCoverageFailure());
 
         final var nextSlotChoice = pickNextSlotByMRV();
         if (nextSlotChoice.isEmpty()) {
-            return !enforceMinimumCoverage || isMinimumCoverageSatisfied();
+            return !enforceMinimumCoverage || isMinimumCoverageSatisfied()
+                    ? SearchOutcome.SOLVED
+                    : SearchOutcome.failure(explainCoverageFailure());
         }
 
         final int currentSlot = nextSlotChoice.getAsInt();
-        final String domainDisplay = String.join(", ", slotDomains.get(currentSlot));
-        System.out.printf("[MRV] Selected Slot%d (remaining values: {%s})%n",
-                currentSlot, domainDisplay);
+        trace("[MRV] Selected Slot%d (remaining values: {%s})%n",
+                currentSlot, String.join(", ", slotDomains.get(currentSlot)));
+
+        branchPoints.push(new BranchPoint(currentSlot, orderCandidates(currentSlot),
+                new HashSet<>(pruningSourcesBySlot.get(currentSlot))));
+        return null;
+    }
 
-        final var candidateBots = List.copyOf(slotDomains.get(currentSlot));
+    /**
+     * Assign the next candidate of a branch point that passes the constraint, nogood and forward checks.
+     * Returns false once every candidate has been tried.
+     */
+    private boolean assignNextCandidate(final BranchPoint branchPoint) {
+        final int currentSlot = branchPoint.slot;
+        final Set<Integer> conflictSet = branchPoint.conflictSet;
+
+        while (branchPoint.nextCandidate < branchPoint.candidates.size()) {
+            final String candidateBot = branchPoint.candidates.get(branchPoint.nextCandidate++);
+            // Value symmetry: two unused bots of the same class lead to mirror-image subtrees,
+            // so only the first one is explored (its conflict set already covers the other).
+            if (!isUsed(candidateBot)) {
+                final String triedTwin = branchPoint.triedUnusedByClass.putIfAbsent(
+                        symmetryClassRepresentative.get(candidateBot), candidateBot);
+                if (triedTwin != null) {
+                    totalSymmetrySkips++;
+                    trace("  Skip Slot%d = %s (interchangeable with unused %s)%n",
+                            currentSlot, candidateBot, triedTwin);
+                    continue;
+                }
+            }
 
-        for (final String candidateBot : candidateBots) {
             totalAssignments++;
-            System.out.printf("  Assign Slot%d = %s ", currentSlot, candidateBot);
+            trace("  Assign Slot%d = %s ", currentSlot, candidateBot);
 
             if (!isConsistentAssignment(currentSlot, candidateBot)) {
-                System.out.println("=> REJECTED (violates constraint)");
+                trace("=> REJECTED (violates constraint)%n");
+                conflictSet.addAll(findBackToBackConflicts(currentSlot, candidateBot));
+                continue;
+            }
+
+            final var violatedNogood = nogoodStore.findViolated(currentSlot, candidateBot, assignedSchedule);
+            if (violatedNogood.isPresent()) {
+                trace("=> REJECTED (matches learned nogood)%n");
+                totalNogoodPrunes++;
+                violatedNogood.get().keySet().stream()
+                        .filter(slot -> slot != currentSlot)
+                        .forEach(conflictSet::add);
                 continue;
             }
-            System.out.println("=> OK");
+            trace("=> OK%n");
 
-            assignedSchedule.put(currentSlot, candidateBot);
+            assign(currentSlot, candidateBot);
 
             final var forwardCheckResult = applyForwardChecking(currentSlot, candidateBot);
-
             if (forwardCheckResult.isPresent()) {
-                if (solveByBacktracking()) return true;
-                restorePrunedDomains(forwardCheckResult.get());
+                branchPoint.assignedBot = candidateBot;
+                branchPoint.forwardChanges = forwardCheckResult.get();
+                return true;
             }
+            conflictSet.addAll(findWipeoutConflicts(currentSlot, candidateBot));
 
-            assignedSchedule.remove(currentSlot);
+            unassign(currentSlot);
             totalBacktracks++;
-            System.out.printf("  << Backtrack from Slot%d = %s%n", currentSlot, candidateBot);
+            trace("  << Backtrack from Slot%d = %s%n", currentSlot, candidateBot);
         }
-
         return false;
     }
 
+    private SearchOutcome exhaust(final BranchPoint branchPoint) {
+        branchPoint.conflictSet.remove(branchPoint.slot);
+        recordNogood(branchPoint.conflictSet);
+        return SearchOutcome.failure(branchPoint.conflictSet);
+    }
+
+    private List<String> orderCandidates(final int slotNumber) {
+        final var candidates = new ArrayList<>(slotDomains.get(slotNumber));
+        final String hintedBot = valueHints.get(slotNumber);
+        if (hintedBot != null && candidates.remove(hintedBot)) {
+            candidates.add(0, hintedBot);
+        }
+        return candidates;
+    }
+
+    /**
+     * Assigned neighbours that already hold the same bot (only reachable when forward checking is bypassed).
+     */
+    private Set<Integer> findBackToBackConflicts(final int slotNumber, final String botName) {
+        if (!enforceNoBackToBack) return Set.of();
+        return IntStream.of(slotNumber - 1, slotNumber + 1)
+                .filter(slot -> botName.equals(assignedSchedule.get(slot)))
+                .boxed()
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Conflict set of a forward-checking wipeout: the slots that had already pruned the wiped-out neighbour.
+     */
+    private Set<Integer> findWipeoutConflicts(final int assignedSlot, final String assignedBot) {
+        final var wipeoutConflicts = new HashSet<Integer>();
+        IntStream.of(assignedSlot - 1, assignedSlot + 1)
+                .filter(slot -> slot >= 1 && slot <= numberOfSlots && !assignedSchedule.containsKey(slot))
+                .filter(slot -> slotDomains.get(slot).size() == 1 && slotDomains.get(slot).contains(assignedBot))
+                .forEach(slot -> wipeoutConflicts.addAll(pruningSourcesBySlot.get(slot)));
+        return wipeoutConflicts;
+    }
+
+    private void recordNogood(final Set<Integer> conflictSlots) {
+        final var nogood = new TreeMap<Integer, String>();
+        conflictSlots.forEach(slot -> nogood.put(slot, assignedSchedule.get(slot)));
+        if (nogoodStore.record(nogood) && traceEnabled) {
+            trace("  [Nogood] learned %s%n", nogood.entrySet().stream()
+                    .map(literal -> "Slot" + literal.getKey() + "=" + literal.getValue())
+                    .collect(Collectors.joining(", ", "{", "}")));
+        }
+    }
+
+    private void trace(final String format, final Object... arguments) {
+        if (traceEnabled) System.out.printf(format, arguments);
+    }
+
+    private static String formatSlots(final Set<Integer> slots) {
+        return slots.stream()
+                .sorted()
+                .map(slot -> "Slot" + slot)
+                .collect(Collectors.joining(", ", "{", "}"));
+    }
+
     private void displayResults(final boolean solutionFound, final double elapsedTimeSeconds) {
+        if (searchStatus == SearchStatus.SOLVED || searchStatus == SearchStatus.UNSATISFIABLE) {
+            displayOutcome(solutionFound ? assignedSchedule : null);
+        } else {
+            System.out.println();
+            System.out.println("=".repeat(45));
+            System.out.println("  RESULT: Search Stopped (" + searchStatus + ")");
+            System.out.println("=".repeat(45));
+            System.out.printf("  Partial assignment: %d of %d slots%n", assignedSchedule.size(), numberOfSlots);
+            new TreeMap<>(assignedSchedule).forEach((slotNumber, botName) ->
+                    System.out.printf("    Slot %d  -->  Bot %s%n", slotNumber, botName));
+        }
+
+        System.out.println("\n"+"-".repeat(45));
+        System.out.println("  Solver Statistics:");
+        System.out.println("    Method       : Backtracking + MRV + Forward Checking + CBJ");
+        System.out.printf("    Assignments  : %d%n", totalAssignments);
+        System.out.printf("    Backtracks   : %d%n", totalBacktracks);
+        System.out.printf("    Backjumps    : %d%n", totalBackjumps);
+        System.out.printf("    FC Inferences: %d%n", totalInferences);
+        System.out.printf("    Nogoods      : %d learned, %d stored, %d prunes%n",
+                nogoodStore.learnedCount(), nogoodStore.size(), totalNogoodPrunes);
+        System.out.printf("    Symmetry     : %d skips, classes %s%n",
+                totalSymmetrySkips, getInterchangeableBotClasses());
+        System.out.printf("    Elapsed Time : %.6f sec%n", elapsedTimeSeconds);
+        System.out.println("-".repeat(45));
+    }
+
+    /**
+     * Print the result banner, the schedule and its constraint checks (null schedule = unsatisfiable).
+     * Shared by every solving engine working on this model.
+     */
+    void displayOutcome(final Map<Integer, String> schedule) {
         System.out.println();
         System.out.println("=".repeat(45));
 
-        if (solutionFound) {
+        if (schedule != null) {
             System.out.println("  RESULT: Solution Found!");
             System.out.println("=".repeat(45));
             System.out.println();
@@ -247,61 +725,148 @@ public class SecurityBotCSP {
             System.out.println("  Final Bot Schedule:");
             IntStream.rangeClosed(1, numberOfSlots).forEach(slotNumber ->
                     System.out.printf("    Slot %d  -->  Bot %s%n",
-                            slotNumber, assignedSchedule.get(slotNumber))
+                            slotNumber, schedule.get(slotNumber))
             );
 
             System.out.println("\n  Constraint Checks:");
-            verifyAndPrintAllConstraints();
+            verifyAndPrintAllConstraints(schedule);
         } else {
             System.out.println("  RESULT: No Valid Assignment Exists");
             System.out.println("=".repeat(45));
             System.out.println("  The given set of constraints is unsatisfiable.");
         }
-
-        System.out.println("\n"+"-".repeat(45));
-        System.out.println("  Solver Statistics:");
-        System.out.println("    Method       : Backtracking + MRV + Forward Checking");
-        System.out.printf("    Assignments  : %d%n", totalAssignments);
-        System.out.printf("    Backtracks   : %d%n", totalBacktracks);
-        System.out.printf("    FC Inferences: %d%n", totalInferences);
-        System.out.printf("    Elapsed Time : %.6f sec%n", elapsedTimeSeconds);
-        System.out.println("-".repeat(45));
     }
 
-    private void verifyAndPrintAllConstraints() {
+    private void verifyAndPrintAllConstraints(final Map<Integer, String> schedule) {
         final boolean noBackToBackSatisfied = IntStream.rangeClosed(1, numberOfSlots - 1)
-                .noneMatch(slot -> assignedSchedule.get(slot).equals(assignedSchedule.get(slot + 1)));
+                .noneMatch(slot -> schedule.get(slot).equals(schedule.get(slot + 1)));
         System.out.printf("    [%s] No Back-to-Back%n", noBackToBackSatisfied ? "PASS" : "FAIL");
         final boolean maintenanceSatisfied = blockedBotsBySlot.entrySet().stream()
                 .noneMatch(entry -> {
                     final int slotNumber = entry.getKey();
                     return slotNumber <= numberOfSlots
-                            && entry.getValue().contains(assignedSchedule.get(slotNumber));
+                            && entry.getValue().contains(schedule.get(slotNumber));
                 });
         System.out.printf("    [%s] Maintenance Break%n", maintenanceSatisfied ? "PASS" : "FAIL");
         if (enforceMinimumCoverage) {
-            final boolean coverageSatisfied = isMinimumCoverageSatisfied();
+            final boolean coverageSatisfied = schedule.values().containsAll(availableBots);
             System.out.printf("    [%s] Minimum Coverage (all bots used)%n",
                     coverageSatisfied ? "PASS" : "FAIL");
         }
     }
 
+    List<String> getAvailableBots() {
+        return availableBots;
+    }
+
+    int getNumberOfSlots() {
+        return numberOfSlots;
+    }
+
+    boolean isNoBackToBackEnforced() {
+        return enforceNoBackToBack;
+    }
+
+    boolean isMinimumCoverageEnforced() {
+        return enforceMinimumCoverage;
+    }
+
+    boolean isBlocked(final int slotNumber, final String botName) {
+        return blockedBotsBySlot.getOrDefault(slotNumber, Set.of()).contains(botName);
+    }
+
+    /**
+     * Initial domains as bitsets over bot indices (bit i = availableBots.get(i)), maintenance breaks
+     * already removed. Index 0 holds Slot 1. Only valid for models with fewer than 64 bots.
+     */
+    long[] buildDomainMasks() {
+        if (availableBots.size() >= Long.SIZE) {
+            throw new IllegalArgumentException("Bitset domains support at most " + (Long.SIZE - 1) + " bots");
+        }
+        return IntStream.rangeClosed(1, numberOfSlots)
+                .mapToLong(slot -> IntStream.range(0, availableBots.size())
+                        .filter(bot -> !isBlocked(slot, availableBots.get(bot)))
+                        .mapToLong(bot -> 1L << bot)
+                        .reduce(0L, (left, right) -> left | right))
+                .toArray();
+    }
+
+
+    /**
+     * Warm start: try these bots first in their slots. Search stays complete; only value order changes.
+     */
+    void setValueHints(final Map<Integer, String> hints) {
+        this.valueHints = Map.copyOf(hints);
+    }
+
+    /**
+     * Turn the step-by-step search trace on or off (benchmarks and large rosters run with it off).
+     */
+    void setTraceEnabled(final boolean enabled) {
+        this.traceEnabled = enabled;
+    }
+
+    /**
+     * Bound the next search; the budget's deadline clock is already running.
+     */
+    void setSearchBudget(final SearchBudget budget) {
+        this.searchBudget = budget;
+    }
+
+    /**
+     * How the last search ended (null before the first search).
+     */
+    SearchStatus getSearchStatus() {
+        return searchStatus;
+    }
+
+    /**
+     * Run the search without printing results; the schedule stays in this instance.
+     * Returns false both for an unsatisfiable model and for a stopped search; see getSearchStatus().
+     */
+    boolean solve() {
+        return solveByBacktracking();
+    }
+
+    /**
+     * Current (possibly partial) assignment, by slot.
+     */
+    Map<Integer, String> getAssignedSchedule() {
+        return Collections.unmodifiableMap(assignedSchedule);
+    }
+
+    int getTotalAssignments() {
+        return totalAssignments;
+    }
+
+    int getTotalBacktracks() {
+        return totalBacktracks;
+    }
+
+    void solveAndDisplay() {
+        System.out.println("Starting backtracking search...");
+        System.out.println();
+
+        final long startTimeNanos = System.nanoTime();
+        final boolean solutionFound = solveByBacktracking();
+        final double elapsedSeconds = (System.nanoTime() - startTimeNanos) / 1_000_000_000.0;
+
+        displayResults(solutionFound, elapsedSeconds);
+    }
+
 
     public static void main(final String[] args) {
         final String inputFilePath = (args.length > 0) ? args[0] : "question22/inputfile/input.txt";
 
         try {
             final var solver = SecurityBotCSP.loadFromFile(inputFilePath);
+            // java SecurityBotCSP input.txt [timeoutMillis] [maxAssignments]
+            final long timeoutMillis = (args.length > 1) ? Long.parseLong(args[1]) : SearchBudget.UNLIMITED;
+            final long maxAssignments = (args.length > 2) ? Long.parseLong(args[2]) : SearchBudget.UNLIMITED;
+            solver.setSearchBudget(new SearchBudget(timeoutMillis, maxAssignments));
             System.out.println("Loaded CSP from: " + inputFilePath);
             System.out.printf("Bots: %s | Slots: %d%n", solver.availableBots, solver.numberOfSlots);
-            System.out.println("Starting backtracking search...");
-            System.out.println();
-
-            final long startTimeNanos = System.nanoTime();
-            final boolean solutionFound = solver.solveByBacktracking();
-            final double elapsedSeconds = (System.nanoTime() - startTimeNanos) / 1_000_000_000.0;
-
-            solver.displayResults(solutionFound, elapsedSeconds);
+            solver.solveAndDisplay();
 
         } catch (IOException exception) {
             System.err.println("Failed to read input file: " + exception.getMessage());
@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/*
+ * Branch-and-bound optimizer for weighted Security Bot schedules.
+ * Same search skeleton as SecurityBotCSP (MRV + forward checking over the hard constraints),
+ * but a branch is cut as soon as its admissible lower bound reaches the best cost found so far.
+ * Every improving schedule is reported as it is found (anytime), and the search stops at the time limit.
+ */
+public class WeightedScheduleOptimizer {
+
+    private static final int UNASSIGNED = -1;
+    private static final long DEFAULT_TIME_LIMIT_MS = 10_000;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final SecurityBotCSP model;
+    private final ScheduleCostModel costModel;
+    private final List<String> bots;
+    private final int slotCount;
+    private final long allBotsMask;
+
+    private final long[] domains;
+    private final int[] assignment;
+    private final int[] shiftsPerBot;
+    private int assignedCount = 0;
+    private int partialCost = 0;
+
+    private int[] bestAssignment = null;
+    private int bestCost = Integer.MAX_VALUE;
+    private long deadlineNanos;
+    private long searchStartNanos;
+    private boolean timedOut = false;
+    private long nodesExplored = 0;
+    private long boundPrunes = 0;
+    private int improvements = 0;
+
+    public WeightedScheduleOptimizer(final SecurityBotCSP model, final ScheduleCostModel costModel) {
+        this.model = model;
+        this.costModel = costModel;
+        this.bots = model.getAvailableBots();
+        this.slotCount = model.getNumberOfSlots();
+        this.allBotsMask = (1L << bots.size()) - 1;
+        this.domains = model.buildDomainMasks();
+        this.assignment = new int[slotCount];
+        this.shiftsPerBot = new int[bots.size()];
+        Arrays.fill(assignment, UNASSIGNED);
+    }
+
+    /**
+     * Minimise the schedule cost within the time limit.
+     * Returns the best schedule found; {@link #isProvenOptimal()} tells whether the search completed.
+     */
+    public Optional<Map<Integer, String>> optimize(final long timeLimitMillis) {
+        searchStartNanos = System.nanoTime();
+        deadlineNanos = searchStartNanos + timeLimitMillis * 1_000_000L;
+        branchAndBound();
+
+        if (bestAssignment == null) return Optional.empty();
+        final var schedule = new LinkedHashMap<Integer, String>();
+        IntStream.range(0, slotCount).forEach(index -> schedule.put(index + 1, bots.get(bestAssignment[index])));
+        return Optional.of(schedule);
+    }
+
+    public boolean isProvenOptimal() {
+        return !timedOut;
+    }
+
+    private void branchAndBound() {
+        nodesExplored++;
+        if (nodesExplored % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+            timedOut = true;
+        }
+        if (timedOut) return;
+        if (!isCoverageStillFeasible()) return;
+
+        if (lowerBound() >= bestCost) {
+            boundPrunes++;
+            return;
+        }
+
+        final int slot = pickNextSlotByMRV();
+        if (slot == UNASSIGNED) {
+            recordImprovement();
+            return;
+        }
+
+        for (final int bot : cheapestBotsFirst(slot)) {
+            final long[] savedDomains = assign(slot, bot);
+            if (savedDomains != null) {
+                branchAndBound();
+                unassign(slot, bot, savedDomains);
+            }
+            if (timedOut) return;
+        }
+    }
+
+    /**
+     * Admissible bound: cost already committed, plus the cheapest remaining value of every open slot,
+     * plus the fairness gap that no completion can close.
+     */
+    private int lowerBound() {
+        int bound = partialCost;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (assignment[slot] != UNASSIGNED) continue;
+            int cheapest = Integer.MAX_VALUE;
+            for (long remaining = domains[slot]; remaining != 0L; remaining &= remaining - 1) {
+                cheapest = Math.min(cheapest, costModel.unaryCost(slot, Long.numberOfTrailingZeros(remaining)));
+            }
+            bound += cheapest;
+        }
+        return bound + fairnessLowerBound();
+    }
+
+    private int fairnessLowerBound() {
+        if (costModel.fairnessWeight() == 0) return 0;
+        final int openSlots = slotCount - assignedCount;
+        final int busiest = Arrays.stream(shiftsPerBot).max().orElse(0);
+        final int leastBusyReachable = Arrays.stream(shiftsPerBot).min().orElse(0) + openSlots;
+        return costModel.fairnessWeight() * Math.max(0, busiest - leastBusyReachable);
+    }
+
+    private void recordImprovement() {
+        final int cost = partialCost + costModel.fairnessCost(shiftsPerBot);
+        if (cost >= bestCost) return;
+        bestCost = cost;
+        bestAssignment = assignment.clone();
+        improvements++;
+        System.out.printf("[B&B] Improved schedule: cost=%d after %d nodes (%.3f ms)  %s%n",
+                cost, nodesExplored, (System.nanoTime() - searchStartNanos) / 1_000_000.0,
+                String.join(" ", IntStream.of(bestAssignment).mapToObj(bots::get).toArray(String[]::new)));
+    }
+
+    /**
+     * Assign slot = bot, add its incremental cost and forward-check the hard NoBackToBack constraint.
+     * Returns the previous domains {slot, left, right} for undo, or null on a wipeout (already undone).
+     */
+    private long[] assign(final int slot, final int bot) {
+        final long[] saved = {domains[slot],
+                slot > 0 ? domains[slot - 1] : 0L,
+                slot < slotCount - 1 ? domains[slot + 1] : 0L};
+
+        assignment[slot] = bot;
+        domains[slot] = 1L << bot;
+        shiftsPerBot[bot]++;
+        assignedCount++;
+        partialCost += incrementalCost(slot, bot);
+
+        if (!model.isNoBackToBackEnforced()) return saved;
+
+        for (final int neighbour : new int[]{slot - 1, slot + 1}) {
+            if (neighbour < 0 || neighbour >= slotCount || assignment[neighbour] != UNASSIGNED) continue;
+            domains[neighbour] &= ~(1L << bot);
+            if (domains[neighbour] == 0L) {
+                unassign(slot, bot, saved);
+                return null;
+            }
+        }
+        return saved;
+    }
+
+    private void unassign(final int slot, final int bot, final long[] saved) {
+        partialCost -= incrementalCost(slot, bot);
+        assignment[slot] = UNASSIGNED;
+        shiftsPerBot[bot]--;
+        assignedCount--;
+        domains[slot] = saved[0];
+        if (slot > 0) domains[slot - 1] = saved[1];
+        if (slot < slotCount - 1) domains[slot + 1] = saved[2];
+    }
+
+    private int incrementalCost(final int slot, final int bot) {
+        int cost = costModel.unaryCost(slot, bot);
+        if (slot > 0 && assignment[slot - 1] == bot) cost += costModel.backToBackPenalty();
+        if (slot < slotCount - 1 && assignment[slot + 1] == bot) cost += costModel.backToBackPenalty();
+        return cost;
+    }
+
+    private int pickNextSlotByMRV() {
+        int bestSlot = UNASSIGNED;
+        int bestSize = Integer.MAX_VALUE;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (assignment[slot] != UNASSIGNED) continue;
+            final int domainSize = Long.bitCount(domains[slot]);
+            if (domainSize < bestSize) {
+                bestSize = domainSize;
+                bestSlot = slot;
+            }
+        }
+        return bestSlot;
+    }
+
+    private int[] cheapestBotsFirst(final int slot) {
+        return IntStream.range(0, bots.size())
+                .filter(bot -> (domains[slot] & (1L << bot)) != 0L)
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer bot) -> costModel.unaryCost(slot, bot))
+                        .thenComparingInt(bot -> shiftsPerBot[bot]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private boolean isCoverageStillFeasible() {
+        if (!model.isMinimumCoverageEnforced()) return true;
+        long usedBots = 0L;
+        for (int bot = 0; bot < shiftsPerBot.length; bot++) {
+            if (shiftsPerBot[bot] > 0) usedBots |= 1L << bot;
+        }
+        final long missingBots = allBotsMask & ~usedBots;
+        if (missingBots == 0L) return true;
+
+        long openSlotBots = 0L;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (assignment[slot] == UNASSIGNED) openSlotBots |= domains[slot];
+        }
+        return (missingBots & ~openSlotBots) == 0L;
+    }
+
+    private void displayStatistics(final double elapsedTimeSeconds) {
+        System.out.println("\n"+"-".repeat(45));
+        System.out.println("  Solver Statistics:");
+        System.out.println("    Method       : Branch and Bound + MRV + Forward Checking");
+        System.out.printf("    Best Cost    : %s%n", bestAssignment == null ? "-" : String.valueOf(bestCost));
+        System.out.printf("    Optimality   : %s%n", isProvenOptimal() ? "proven" : "time limit reached");
+        System.out.printf("    Improvements : %d%n", improvements);
+        System.out.printf("    Nodes        : %d%n", nodesExplored);
+        System.out.printf("    Bound Prunes : %d%n", boundPrunes);
+        System.out.printf("    Elapsed Time : %.6f sec%n", elapsedTimeSeconds);
+        System.out.println("-".repeat(45));
+    }
+
+
+    public static void main(final String[] args) {
+        final String inputFilePath = (args.length > 0) ? args[0] : "resource/weighted_input.txt";
+        final long timeLimitMillis = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_TIME_LIMIT_MS;
+
+        try {
+            final var model = SecurityBotCSP.loadFromFile(inputFilePath);
+            final var costModel = ScheduleCostModel.loadFromFile(inputFilePath, model);
+            final var optimizer = new WeightedScheduleOptimizer(model, costModel);
+            System.out.println("Loaded weighted CSP from: " + inputFilePath);
+            System.out.printf("Bots: %s | Slots: %d | Time limit: %d ms%n",
+                    model.getAvailableBots(), model.getNumberOfSlots(), timeLimitMillis);
+            System.out.println("Starting branch and bound...");
+            System.out.println();
+
+            final long startTimeNanos = System.nanoTime();
+            final var schedule = optimizer.optimize(timeLimitMillis);
+            final double elapsedSeconds = (System.nanoTime() - startTimeNanos) / 1_000_000_000.0;
+
+            model.displayOutcome(schedule.orElse(null));
+            optimizer.displayStatistics(elapsedSeconds);
+
+        } catch (IOException exception) {
+            System.err.println("Failed to read input file: " + exception.getMessage());
+        } catch (IllegalArgumentException exception) {
+            System.err.println("Bad input: " + exception.getMessage());
+        }
+    }
+}
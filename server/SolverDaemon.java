@@ -0,0 +1,491 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * SolverDaemon - Resident server for both questions. One JVM keeps the solvers JIT-compiled, the standard goal
+ * tables built and the solution cache filled, and answers requests over a local TCP or Unix domain socket.
+ *
+ * Protocol: one request per line, one response per line, both starting with a client-chosen id.
+ * A client may send any number of requests without waiting (pipelining); they run on a bounded worker pool and
+ * each response is written as soon as it is ready, so responses can come back in a different order.
+ *
+ *   id PUZZLE start goal [solver=name | race=a,b | race-any=a,b] [timeout=ms] [nodes=n]
+ *   id CSP bots=A,B,C slots=n [nobacktoback] [coverage] [break=A@3,B@1] [timeout=ms] [assignments=n]
+ *   id PING | id STATS | id SOLVERS | QUIT
+ *
+ * Every response ends with queue_us (time waiting for a worker) and latency_us (receipt to response).
+ * A full queue answers "id BUSY" at once. A client that half-closes after sending still gets every response;
+ * once a response cannot be written, the client is gone and its unfinished searches are cancelled.
+ */
+public class SolverDaemon {
+
+    private static final int DEFAULT_PORT = 7610;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final int DEFAULT_WARMUP_PUZZLES = 200;
+    private static final long DEFAULT_TIMEOUT_MS = 10_000;
+    private static final String DEFAULT_SOLVER = "astar-h2";
+    private static final int WARMUP_WALK_LENGTH = 40;
+    private static final long WARMUP_SEED = 42;
+    // most recent latencies kept for the STATS percentiles
+    private static final int LATENCY_WINDOW = 4096;
+    private static final int READ_BUFFER_BYTES = 8192;
+    // a longer request line is refused and its connection dropped, so one client cannot fill the heap
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+    // a client with this many responses not yet written has to read some before its next request is taken
+    private static final int MAX_UNWRITTEN_RESPONSES = 1024;
+
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService readers = Executors.newCachedThreadPool();
+    private final ExecutorService writers = Executors.newCachedThreadPool();
+    private final SolutionCache cache;
+    private final long timeoutMs;
+    private final long maxNodes;
+    private final long maxMemoryBytes;
+    private final LatencyWindow latencies = new LatencyWindow(LATENCY_WINDOW);
+    private final AtomicLong rejected = new AtomicLong();
+
+    SolverDaemon(final int threadCount, final int queueCapacity, final int cacheCapacity, final long timeoutMs,
+                 final long maxNodes, final long maxMemoryBytes) {
+        this.workers = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+        this.cache = cacheCapacity > 0 ? SolutionCache.enable(cacheCapacity) : null;
+        this.timeoutMs = timeoutMs;
+        this.maxNodes = maxNodes;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    /**
+     * One client connection. Reads and writes each run on their own thread; workers only queue their responses,
+     * so a client that reads slowly stalls its own writer and never a worker.
+     */
+    private static final class Connection {
+        // queued after the last response; the writer closes the channel when it reaches it
+        private static final ByteBuffer CLOSE = ByteBuffer.allocate(0);
+
+        final SocketChannel channel;
+        // cancel actions of the budgets of requests still running
+        final Set<Runnable> inFlight = ConcurrentHashMap.newKeySet();
+        private final BlockingQueue<ByteBuffer> outgoing = new LinkedBlockingQueue<>();
+        private int pending;
+        private volatile boolean broken;
+
+        Connection(final SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Count one more request, first waiting while the client has too many answers it has not read yet.
+         */
+        synchronized void begin() throws InterruptedException {
+            while (pending + outgoing.size() >= MAX_UNWRITTEN_RESPONSES && !broken) wait();
+            pending++;
+        }
+
+        synchronized void end() {
+            pending--;
+            notifyAll();
+        }
+
+        synchronized void awaitIdle() throws InterruptedException {
+            while (pending > 0 && !broken) wait();
+        }
+
+        /**
+         * Queue one response line for the writer. Never blocks.
+         */
+        void respond(final String line) {
+            if (!broken) outgoing.add(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)));
+        }
+
+        /**
+         * Close the channel once every response queued so far is written.
+         */
+        void close() {
+            outgoing.add(CLOSE);
+        }
+
+        /**
+         * Write queued responses in order. A failed write means the client is gone, so its searches are cancelled.
+         */
+        void writeResponses() {
+            try {
+                for (ByteBuffer bytes = outgoing.take(); bytes != CLOSE; bytes = outgoing.take()) {
+                    while (bytes.hasRemaining()) channel.write(bytes);
+                    synchronized (this) {
+                        notifyAll();
+                    }
+                }
+            } catch (IOException exception) {
+                broken = true;
+                inFlight.forEach(Runnable::run);
+                synchronized (this) {
+                    notifyAll();
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException exception) {
+                    // already closed
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps the last N latencies for percentile reporting.
+     */
+    private static final class LatencyWindow {
+        private final long[] micros;
+        private long count;
+
+        LatencyWindow(final int size) {
+            this.micros = new long[size];
+        }
+
+        synchronized void add(final long latencyMicros) {
+            micros[(int) (count++ % micros.length)] = latencyMicros;
+        }
+
+        synchronized String summary() {
+            final int size = (int) Math.min(count, micros.length);
+            final long[] sorted = Arrays.copyOf(micros, size);
+            Arrays.sort(sorted);
+            return String.format("requests=%d p50_us=%d p99_us=%d max_us=%d", count,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), size == 0 ? 0 : sorted[size - 1]);
+        }
+
+        private static long percentile(final long[] sorted, final double fraction) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)];
+        }
+    }
+
+    /**
+     * Accept connections until the process is stopped.
+     */
+    void serve(final ServerSocketChannel server) throws IOException {
+        while (true) {
+            final Connection connection = new Connection(server.accept());
+            writers.execute(connection::writeResponses);
+            readers.execute(() -> readRequests(connection));
+        }
+    }
+
+    private void readRequests(final Connection connection) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (connection.channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    final byte next = buffer.get();
+                    if (next != '\n') {
+                        if (line.size() == MAX_LINE_BYTES) {
+                            connection.respond("ERROR line too long");
+                            return;
+                        }
+                        line.write(next);
+                        continue;
+                    }
+                    final String request = line.toString(StandardCharsets.UTF_8).strip();
+                    line.reset();
+                    if ("QUIT".equalsIgnoreCase(request)) return;
+                    if (!request.isEmpty()) submit(connection, request, System.nanoTime());
+                }
+                buffer.clear();
+            }
+        } catch (IOException exception) {
+            // connection reset; anything still running is cancelled by its failed write
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                // a client that half-closes after sending a batch still gets every response
+                connection.awaitIdle();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    private void submit(final Connection connection, final String request, final long receivedNanos)
+            throws InterruptedException {
+        final String[] tokens = request.split("\\s+");
+        final String id = tokens[0];
+        connection.begin();
+        try {
+            workers.execute(() -> {
+                final long startedNanos = System.nanoTime();
+                String response = "ERROR";
+                try {
+                    response = handle(connection, tokens);
+                } catch (RuntimeException exception) {
+                    response = "ERROR " + exception.getMessage();
+                } catch (Throwable failure) {
+                    // e.g. StackOverflowError or OutOfMemoryError: the worker survives and the client still gets an answer
+                    response = "ERROR " + failure;
+                } finally {
+                    try {
+                        final long latencyMicros = (System.nanoTime() - receivedNanos) / 1000;
+                        latencies.add(latencyMicros);
+                        connection.respond(id + " " + response + " queue_us=" + (startedNanos - receivedNanos) / 1000
+                                + " latency_us=" + latencyMicros);
+                    } finally {
+                        connection.end();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            rejected.incrementAndGet();
+            connection.respond(id + " BUSY");
+            connection.end();
+        }
+    }
+
+    private String handle(final Connection connection, final String[] tokens) {
+        if (tokens.length < 2) throw new IllegalArgumentException("expected: id COMMAND ...");
+        switch (tokens[1].toUpperCase()) {
+            case "PUZZLE":
+                return solvePuzzle(connection, tokens);
+            case "CSP":
+                return solveSchedule(connection, tokens);
+            case "PING":
+                return "PONG";
+            case "SOLVERS":
+                return "SOLVERS " + SolverRegistry.all().stream().map(Solver::name).collect(Collectors.joining(","));
+            case "STATS":
+                return "STATS " + latencies.summary() + " busy=" + rejected.get()
+                        + " active=" + workers.getActiveCount() + " queued=" + workers.getQueue().size();
+            default:
+                throw new IllegalArgumentException("unknown command " + tokens[1]);
+        }
+    }
+
+    /**
+     * Options after the fixed arguments, as name=value (a bare word maps to "").
+     */
+    private static Map<String, String> options(final String[] tokens, final int from) {
+        final Map<String, String> options = new HashMap<>();
+        for (int k = from; k < tokens.length; k++) {
+            final int separator = tokens[k].indexOf('=');
+            if (separator < 0) options.put(tokens[k].toLowerCase(), "");
+            else options.put(tokens[k].substring(0, separator).toLowerCase(), tokens[k].substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static long longOption(final Map<String, String> options, final String name, final long fallback) {
+        final String value = options.get(name);
+        return value == null ? fallback : Long.parseLong(value);
+    }
+
+    private String solvePuzzle(final Connection connection, final String[] tokens) {
+        if (tokens.length < 4) throw new IllegalArgumentException("expected: id PUZZLE start goal [options]");
+        final int[] start = parseState(tokens[2]);
+        final int[] goal = parseState(tokens[3]);
+        final Map<String, String> options = options(tokens, 4);
+        final long requestTimeout = longOption(options, "timeout", timeoutMs);
+        final long requestNodes = longOption(options, "nodes", maxNodes);
+
+        final String raceMode = options.containsKey("race") ? "race" : options.containsKey("race-any") ? "race-any" : null;
+        final String spec = raceMode != null
+                ? raceMode + "=" + options.get(raceMode)
+                : options.getOrDefault("solver", DEFAULT_SOLVER);
+        final String algorithm = "SolverDaemon/" + spec;
+
+        if (cache != null) {
+            final String moves = cache.lookup(start, goal, algorithm);
+            if (moves != null) {
+                return SolutionCache.NO_SOLUTION.equals(moves)
+                        ? "NO_SOLUTION solver=" + spec + " cached=yes"
+                        : "SOLVED solver=" + spec + " length=" + moves.length() + " moves=" + moves + " cached=yes";
+            }
+        }
+
+        // the parity check answers unsolvable pairs without searching half the state space
+        if (!PuzzleState.isSolvable(start, goal)) return "NO_SOLUTION solver=parity-check states=0";
+
+        final List<Runnable> cancels = new ArrayList<>();
+        final Supplier<SearchBudget> budgets = () -> {
+            final SearchBudget budget = new SearchBudget(requestTimeout, requestNodes, maxMemoryBytes);
+            final Runnable cancel = budget::cancel;
+            synchronized (cancels) {
+                cancels.add(cancel);
+            }
+            connection.inFlight.add(cancel);
+            return budget;
+        };
+
+        String solverName = spec;
+        final SearchResult result;
+        try {
+            if (raceMode == null) {
+                result = SolverRegistry.get(spec).solve(start, goal, budgets.get());
+            } else {
+                final SolverRace.Outcome outcome = SolverRace.race(SolverRegistry.select(options.get(raceMode)),
+                        start, goal, "race".equals(raceMode), budgets);
+                if (outcome.winner == null) return "NO_ANSWER solver=" + spec;
+                solverName = outcome.winner.name();
+                result = outcome.result;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return "CANCELLED solver=" + spec;
+        } finally {
+            synchronized (cancels) {
+                cancels.forEach(connection.inFlight::remove);
+            }
+        }
+
+        if (cache != null && result.status.isComplete()) cache.store(start, goal, algorithm, result.solutionPath);
+        final StringBuilder response = new StringBuilder(result.status.toString()).append(" solver=").append(solverName);
+        if (result.isSolved()) {
+            final String moves = SolutionCache.encode(result.solutionPath);
+            response.append(" length=").append(moves.length()).append(" moves=").append(moves);
+        }
+        return response.append(" states=").append(result.nodesExplored).toString();
+    }
+
+    /**
+     * Parse a board such as "1234567B8" or "123456780" and check it holds each tile once.
+     */
+    private static int[] parseState(final String raw) {
+        final int[] state = PuzzleState.parseState(raw);
+        final boolean[] seen = new boolean[PuzzleState.TILE_COUNT];
+        if (state.length != PuzzleState.TILE_COUNT) throw new IllegalArgumentException("bad state " + raw);
+        for (final int tile : state) {
+            if (tile < 0 || tile >= PuzzleState.TILE_COUNT || seen[tile]) {
+                throw new IllegalArgumentException("bad state " + raw);
+            }
+            seen[tile] = true;
+        }
+        return state;
+    }
+
+    private String solveSchedule(final Connection connection, final String[] tokens) {
+        final Map<String, String> options = options(tokens, 2);
+        if (!options.containsKey("bots") || !options.containsKey("slots")) {
+            throw new IllegalArgumentException("expected: id CSP bots=A,B slots=n [options]");
+        }
+        final List<String> bots = List.of(options.get("bots").split(","));
+        final int slots = Integer.parseInt(options.get("slots"));
+        final Map<Integer, Set<String>> blocked = new HashMap<>();
+        if (options.containsKey("break")) {
+            for (final String maintenanceBreak : options.get("break").split(",")) {
+                final String[] botAndSlot = maintenanceBreak.split("@");
+                if (botAndSlot.length != 2) throw new IllegalArgumentException("bad break " + maintenanceBreak);
+                blocked.computeIfAbsent(Integer.parseInt(botAndSlot[1]), slot -> new HashSet<>()).add(botAndSlot[0]);
+            }
+        }
+
+        final SecurityBotCSP model = new SecurityBotCSP(bots, slots, options.containsKey("nobacktoback"),
+                options.containsKey("coverage"), blocked);
+        model.setTraceEnabled(false);
+        final SecurityBotCSP.SearchBudget budget = new SecurityBotCSP.SearchBudget(
+                longOption(options, "timeout", timeoutMs),
+                longOption(options, "assignments", SecurityBotCSP.SearchBudget.UNLIMITED));
+        final Runnable cancel = budget::cancel;
+        connection.inFlight.add(cancel);
+        try {
+            model.setSearchBudget(budget);
+            model.solve();
+        } finally {
+            connection.inFlight.remove(cancel);
+        }
+
+        final Map<Integer, String> schedule = model.getAssignedSchedule();
+        final StringJoiner assigned = new StringJoiner(",");
+        for (int slot = 1; slot <= slots; slot++) assigned.add(schedule.getOrDefault(slot, "-"));
+        return model.getSearchStatus() + " schedule=" + assigned + " assignments=" + model.getTotalAssignments()
+                + " backtracks=" + model.getTotalBacktracks();
+    }
+
+    /**
+     * Run every default solver on random solvable puzzles, and one small schedule, so the first real
+     * request finds the hot paths compiled.
+     */
+    void warmUp(final int puzzleCount) {
+        final Random rng = new Random(WARMUP_SEED);
+        final long[] successors = new long[PuzzleState.MAX_NEIGHBORS];
+        final List<Solver> solvers = List.of(SolverRegistry.get(DEFAULT_SOLVER), SolverRegistry.get("idastar-h2"));
+        for (int k = 0; k < puzzleCount; k++) {
+            final int[] goal = GoalCanonicalizer.STANDARD_GOAL;
+            long state = PuzzleState.pack(goal);
+            for (int step = 0; step < WARMUP_WALK_LENGTH; step++) {
+                state = successors[rng.nextInt(PuzzleState.expand(state, successors))];
+            }
+            final int[] start = PuzzleState.unpack(state);
+            for (final Solver solver : solvers) solver.solve(start, goal, SearchBudget.unlimited());
+        }
+        final SecurityBotCSP model = new SecurityBotCSP(List.of("A", "B", "C"), 4, true, true,
+                Map.of(3, Set.of("C")));
+        model.setTraceEnabled(false);
+        model.solve();
+    }
+
+    /**
+     * java SolverDaemon [port=7610 | unix=/tmp/solver.sock] [threads=n] [queue=n] [warmup=n] [cache=n]
+     *                   [timeout=ms] [nodes=n] [memory=mb]
+     */
+    public static void main(final String[] args) throws IOException {
+        final Map<String, String> options = options(args, 0);
+        final int threadCount = (int) longOption(options, "threads", Runtime.getRuntime().availableProcessors());
+        final int queueCapacity = (int) longOption(options, "queue", DEFAULT_QUEUE_CAPACITY);
+        final int cacheCapacity = (int) longOption(options, "cache", SolutionCache.DEFAULT_CAPACITY);
+        final long memoryMb = longOption(options, "memory", -1);
+        final SolverDaemon daemon = new SolverDaemon(threadCount, queueCapacity, cacheCapacity,
+                longOption(options, "timeout", DEFAULT_TIMEOUT_MS),
+                longOption(options, "nodes", SearchBudget.UNLIMITED),
+                memoryMb < 0 ? SearchBudget.UNLIMITED : memoryMb << 20);
+
+        final Path socketFile = options.containsKey("unix") ? Path.of(options.get("unix")) : null;
+        // only a socket left behind by an earlier run is replaced; any other file is left alone
+        if (socketFile != null && Files.exists(socketFile, LinkOption.NOFOLLOW_LINKS)) {
+            if (!Files.readAttributes(socketFile, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isOther()) {
+                System.err.println("Refusing to start: " + socketFile + " exists and is not a socket");
+                return;
+            }
+            Files.delete(socketFile);
+        }
+
+        final long warmupStart = System.currentTimeMillis();
+        daemon.warmUp((int) longOption(options, "warmup", DEFAULT_WARMUP_PUZZLES));
+        System.out.println("Warm-up done in " + (System.currentTimeMillis() - warmupStart) + " ms");
+
+        final ServerSocketChannel server;
+        if (socketFile != null) {
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socketFile));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> socketFile.toFile().delete()));
+            System.out.println("SolverDaemon listening on " + socketFile);
+        } else {
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    (int) longOption(options, "port", DEFAULT_PORT)));
+            System.out.println("SolverDaemon listening on " + server.getLocalAddress());
+        }
+        System.out.printf("%d workers, queue %d, request timeout %d ms%n", threadCount, queueCapacity,
+                daemon.timeoutMs);
+        daemon.serve(server);
+    }
+}